@@ -2,8 +2,10 @@ package com.projeto.eap.projeto_eap_joao;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ProjetoEapJoaoApplication {
 
 	public static void main(String[] args) {
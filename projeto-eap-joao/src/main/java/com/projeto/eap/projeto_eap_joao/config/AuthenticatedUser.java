@@ -0,0 +1,14 @@
+package com.projeto.eap.projeto_eap_joao.config;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+public record AuthenticatedUser(
+        Long id,
+        String username
+) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,21 @@
+package com.projeto.eap.projeto_eap_joao.config;
+
+import com.projeto.eap.projeto_eap_joao.service.CommandRevisionService;
+import com.projeto.eap.projeto_eap_joao.service.ShardRouter;
+import com.projeto.eap.projeto_eap_joao.service.TokenService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+    // Kept eager: every authenticated request needs the token service, and the revision service
+    // and shard router validate their configuration in the constructor, which should fail the boot, not a request.
+    @Bean
+    static LazyInitializationExcludeFilter fastStartEagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(TokenService.class, CommandRevisionService.class, ShardRouter.class);
+    }
+}
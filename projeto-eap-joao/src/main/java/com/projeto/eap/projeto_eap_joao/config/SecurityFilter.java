@@ -1,6 +1,7 @@
 package com.projeto.eap.projeto_eap_joao.config;
 
-import com.projeto.eap.projeto_eap_joao.repository.UserRepository;
+import com.projeto.eap.projeto_eap_joao.domain.ShardState;
+import com.projeto.eap.projeto_eap_joao.service.ShardDirectoryService;
 import com.projeto.eap.projeto_eap_joao.service.TokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,18 +10,22 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component @RequiredArgsConstructor
 public class SecurityFilter extends OncePerRequestFilter {
 
+    private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
     private final TokenService tokenService;
-    private final UserRepository userRepository;
+    private final ShardDirectoryService shardDirectoryService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -30,19 +35,20 @@ public class SecurityFilter extends OncePerRequestFilter {
             var login = tokenService.validateToken(token);
 
             if(login != null && !login.isEmpty()){
-                var userEntity = userRepository.findByUsername(login).orElseThrow(() -> new RuntimeException("User not found"));
+                var location = shardDirectoryService.findByUsername(login).orElseThrow(() -> new RuntimeException("User not found"));
 
-                UserDetails user = org.springframework.security.core.userdetails.User
-                        .withUsername(userEntity.getUsername())
-                        .password(userEntity.getPassword())
-                        .roles("USER")
-                        .build();
+                var user = new AuthenticatedUser(location.getUserId(), login);
 
-                var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                var authentication = new UsernamePasswordAuthenticationToken(user, null, USER_AUTHORITIES);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                ShardContext.set(location.getShard(), location.getState() == ShardState.ACTIVE);
             }
         }
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
+        }
     }
 
     private String recoverToken(HttpServletRequest request) {
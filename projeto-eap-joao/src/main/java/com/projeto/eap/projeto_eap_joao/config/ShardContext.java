@@ -0,0 +1,62 @@
+package com.projeto.eap.projeto_eap_joao.config;
+
+import com.projeto.eap.projeto_eap_joao.exceptions.ApiErrorException;
+import org.springframework.http.HttpStatus;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard used by the current thread. The routing datasource reads it when a connection
+ * is opened, so it must be set before the transaction starts: switching shards inside
+ * a running transaction has no effect.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Route> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String currentShard() {
+        Route route = CURRENT.get();
+        return route != null ? route.shard() : null;
+    }
+
+    public static void set(String shard, boolean writable) {
+        CURRENT.set(new Route(shard, writable));
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void requireWritable() {
+        Route route = CURRENT.get();
+        if (route != null && !route.writable()) {
+            throw new ApiErrorException(HttpStatus.CONFLICT, "Seus dados estão sendo migrados, tente novamente em instantes.");
+        }
+    }
+
+    public static <T> T callOn(String shard, Supplier<T> action) {
+        Route previous = CURRENT.get();
+        CURRENT.set(new Route(shard, true));
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void runOn(String shard, Runnable action) {
+        callOn(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private record Route(String shard, boolean writable) {}
+}
@@ -0,0 +1,53 @@
+package com.projeto.eap.projeto_eap_joao.config;
+
+import com.projeto.eap.projeto_eap_joao.service.ShardMoveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntConsumer;
+
+// java -jar app.jar --spring.main.web-application-type=none --sharding.move.user-id=42 --sharding.move.target=shard-b
+// Exits with 0 once the move is done and 1 if it failed.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "sharding.move", name = "user-id")
+public class ShardMoveRunner implements ApplicationRunner {
+
+    private final ShardMoveService shardMoveService;
+    private final ApplicationContext context;
+    private final Long userId;
+    private final String targetShard;
+
+    IntConsumer exit = System::exit;
+
+    public ShardMoveRunner(ShardMoveService shardMoveService,
+                           ApplicationContext context,
+                           @Value("${sharding.move.user-id}") Long userId,
+                           @Value("${sharding.move.target}") String targetShard) {
+        this.shardMoveService = shardMoveService;
+        this.context = context;
+        this.userId = userId;
+        this.targetShard = targetShard;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            shardMoveService.moveUser(userId, targetShard);
+            log.info("Usuário {} movido para o shard {}", userId, targetShard);
+        } catch (RuntimeException e) {
+            log.error("Falha ao mover o usuário {} para o shard {}", userId, targetShard, e);
+            exitCode = 1;
+        }
+        // The scheduler's threads are not daemons: without closing the context the JVM never exits.
+        int code = exitCode;
+        exit.accept(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,110 @@
+package com.projeto.eap.projeto_eap_joao.config;
+
+import com.projeto.eap.projeto_eap_joao.service.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.schema.SourceType;
+import org.hibernate.tool.schema.TargetType;
+import org.hibernate.tool.schema.spi.ContributableMatcher;
+import org.hibernate.tool.schema.spi.ExecutionOptions;
+import org.hibernate.tool.schema.spi.SchemaManagementTool;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.hibernate.tool.schema.spi.ScriptSourceInput;
+import org.hibernate.tool.schema.spi.ScriptTargetOutput;
+import org.hibernate.tool.schema.spi.SourceDescriptor;
+import org.hibernate.tool.schema.spi.TargetDescriptor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+// Hibernate only manages the schema of the default (directory) shard; this applies
+// spring.jpa.hibernate.ddl-auto to the remaining ones the way Hibernate does: create drops and
+// recreates the schema, create-drop also drops it when the context closes.
+@RequiredArgsConstructor
+public class ShardSchemaInitializer implements InitializingBean, DisposableBean {
+
+    private static final SourceDescriptor METADATA = new SourceDescriptor() {
+        @Override
+        public SourceType getSourceType() {
+            return SourceType.METADATA;
+        }
+
+        @Override
+        public ScriptSourceInput getScriptSourceInput() {
+            return null;
+        }
+    };
+
+    private static final TargetDescriptor DATABASE = new TargetDescriptor() {
+        @Override
+        public EnumSet<TargetType> getTargetTypes() {
+            return EnumSet.of(TargetType.DATABASE);
+        }
+
+        @Override
+        public ScriptTargetOutput getScriptTargetOutput() {
+            return null;
+        }
+    };
+
+    private final ShardSchemaIntegrator integrator;
+    private final ShardRouter shardRouter;
+    private final String ddlAuto;
+
+    @Override
+    public void afterPropertiesSet() {
+        switch (ddlAuto) {
+            case "none" -> { }
+            case "validate" -> forEachShard((tool, settings, options) -> tool.getSchemaValidator(settings)
+                    .doValidation(integrator.getMetadata(), options, ContributableMatcher.ALL));
+            case "update" -> forEachShard((tool, settings, options) -> tool.getSchemaMigrator(settings)
+                    .doMigration(integrator.getMetadata(), options, ContributableMatcher.ALL, DATABASE));
+            case "create", "create-drop" -> forEachShard((tool, settings, options) -> {
+                drop(tool, settings, options);
+                tool.getSchemaCreator(settings)
+                        .doCreation(integrator.getMetadata(), options, ContributableMatcher.ALL, METADATA, DATABASE);
+            });
+            default -> throw new IllegalStateException("spring.jpa.hibernate.ddl-auto não suportado com sharding: " + ddlAuto);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (ddlAuto.equals("create-drop")) {
+            forEachShard(this::drop);
+        }
+    }
+
+    private void drop(SchemaManagementTool tool, Map<String, Object> settings, ExecutionOptions options) {
+        tool.getSchemaDropper(settings)
+                .doDrop(integrator.getMetadata(), options, ContributableMatcher.ALL, METADATA, DATABASE);
+    }
+
+    private void forEachShard(ShardAction action) {
+        if (integrator.getMetadata() == null) {
+            throw new IllegalStateException("Metadata do Hibernate indisponível para inicializar os shards");
+        }
+        ServiceRegistry registry = integrator.getServiceRegistry();
+        SchemaManagementTool tool = registry.requireService(SchemaManagementTool.class);
+        Map<String, Object> settings = registry.requireService(ConfigurationService.class).getSettings();
+        ExecutionOptions options = SchemaManagementToolCoordinator.buildExecutionOptions(settings, exception -> {
+            throw exception;
+        });
+
+        List<String> shards = shardRouter.shards().stream()
+                .filter(shard -> !shard.equals(shardRouter.directoryShard()))
+                .toList();
+        for (String shard : shards) {
+            ShardContext.runOn(shard, () -> action.apply(tool, settings, options));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ShardAction {
+        void apply(SchemaManagementTool tool, Map<String, Object> settings, ExecutionOptions options);
+    }
+}
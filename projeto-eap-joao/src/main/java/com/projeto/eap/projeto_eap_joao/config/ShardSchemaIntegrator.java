@@ -0,0 +1,27 @@
+package com.projeto.eap.projeto_eap_joao.config;
+
+import lombok.Getter;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+// Keeps the boot metadata so ShardSchemaInitializer can apply the schema to the other shards.
+@Getter
+public class ShardSchemaIntegrator implements Integrator {
+
+    private volatile Metadata metadata;
+    private volatile ServiceRegistry serviceRegistry;
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.serviceRegistry = bootstrapContext.getServiceRegistry();
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.projeto.eap.projeto_eap_joao.config;
+
+import com.projeto.eap.projeto_eap_joao.service.ShardRouter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardingProperties properties) {
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        properties.getShards().forEach((name, shard) -> {
+            var builder = DataSourceBuilder.create()
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword());
+            if (shard.getDriverClassName() != null) {
+                builder.driverClassName(shard.getDriverClassName());
+            }
+            targets.put(name, builder.build());
+        });
+
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource();
+        dataSource.setTargetDataSources(targets);
+        dataSource.setDefaultTargetDataSource(targets.get(properties.resolvedDirectory()));
+        dataSource.setLenientFallback(false);
+        return dataSource;
+    }
+
+    @Bean
+    public ShardSchemaIntegrator shardSchemaIntegrator() {
+        return new ShardSchemaIntegrator();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaIntegratorCustomizer(ShardSchemaIntegrator integrator) {
+        return hibernateProperties -> hibernateProperties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(integrator));
+    }
+
+    // Takes the EntityManagerFactory only to run after Hibernate has booted.
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                         ShardSchemaIntegrator integrator,
+                                                         ShardRouter shardRouter,
+                                                         @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchemaInitializer(integrator, shardRouter, ddlAuto);
+    }
+
+    @Bean
+    static LazyInitializationExcludeFilter shardSchemaInitializerEager() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ShardSchemaInitializer.class);
+    }
+}
@@ -0,0 +1,42 @@
+package com.projeto.eap.projeto_eap_joao.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "sharding")
+@Getter
+@Setter
+public class ShardingProperties {
+
+    // When false the single spring.datasource is used as the only shard.
+    private boolean enabled;
+
+    // Shard that holds the user_shard map; defaults to the first configured shard.
+    private String directory;
+
+    private int virtualNodes = 128;
+
+    // User and command ids each instance reserves at a time from the directory (see GlobalIdAllocator).
+    private int idBlockSize = 100;
+
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    public String resolvedDirectory() {
+        return directory != null ? directory : shards.keySet().stream().findFirst().orElse(null);
+    }
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
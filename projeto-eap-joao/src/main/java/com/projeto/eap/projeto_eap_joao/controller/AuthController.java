@@ -2,6 +2,8 @@ package com.projeto.eap.projeto_eap_joao.controller;
 
 import com.projeto.eap.projeto_eap_joao.dto.LoginRequest;
 import com.projeto.eap.projeto_eap_joao.dto.LoginResponse;
+import com.projeto.eap.projeto_eap_joao.dto.LogoutRequest;
+import com.projeto.eap.projeto_eap_joao.dto.RefreshRequest;
 import com.projeto.eap.projeto_eap_joao.dto.RegisterRequest;
 import com.projeto.eap.projeto_eap_joao.service.AuthService;
 import jakarta.validation.Valid;
@@ -27,4 +29,17 @@ public class AuthController {
         LoginResponse response = authService.loginUser(dto);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody @Valid RefreshRequest dto) {
+        LoginResponse response = authService.refresh(dto);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String authorization,
+                                       @RequestBody(required = false) LogoutRequest dto) {
+        authService.logout(authorization.replace("Bearer ", ""), dto);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.projeto.eap.projeto_eap_joao.controller;
 
+import com.projeto.eap.projeto_eap_joao.config.AuthenticatedUser;
 import com.projeto.eap.projeto_eap_joao.domain.Technology;
 import com.projeto.eap.projeto_eap_joao.domain.User;
 import com.projeto.eap.projeto_eap_joao.dto.CommandRequest;
 import com.projeto.eap.projeto_eap_joao.dto.CommandResponse;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRevisionResponse;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRevisionSummary;
+import com.projeto.eap.projeto_eap_joao.dto.PageResponse;
 import com.projeto.eap.projeto_eap_joao.repository.UserRepository;
 import com.projeto.eap.projeto_eap_joao.service.CommandService;
 import jakarta.validation.Valid;
@@ -18,6 +22,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Arrays;
+import java.util.List;
 
 @RestController
 @RequestMapping("/commands")
@@ -28,7 +33,7 @@ public class CommandController {
     private final UserRepository userRepository;
 
     @GetMapping
-    public ResponseEntity<Page<CommandResponse>> getCommands(
+    public ResponseEntity<PageResponse<CommandResponse>> getCommands(
             Authentication authentication,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -49,7 +54,7 @@ public class CommandController {
             }
         }
         Page<CommandResponse> commands = commandService.getCommands(user, normalizedSearch, tech, pageable);
-        return ResponseEntity.ok(commands);
+        return ResponseEntity.ok(PageResponse.from(commands));
     }
 
     @PostMapping
@@ -93,12 +98,40 @@ public class CommandController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{id}/revisions")
+    public ResponseEntity<List<CommandRevisionSummary>> getRevisions(
+            Authentication authentication,
+            @PathVariable Long id
+    ) {
+        User user = getCurrentUser(authentication);
+        return ResponseEntity.ok(commandService.getRevisions(user, id));
+    }
+
+    @GetMapping("/{id}/revisions/{revision}")
+    public ResponseEntity<CommandRevisionResponse> getRevision(
+            Authentication authentication,
+            @PathVariable Long id,
+            @PathVariable int revision
+    ) {
+        User user = getCurrentUser(authentication);
+        return ResponseEntity.ok(commandService.getRevision(user, id, revision));
+    }
+
+    @PostMapping("/{id}/revisions/{revision}/restore")
+    public ResponseEntity<CommandResponse> restoreRevision(
+            Authentication authentication,
+            @PathVariable Long id,
+            @PathVariable int revision
+    ) {
+        User user = getCurrentUser(authentication);
+        return ResponseEntity.ok(commandService.restoreRevision(user, id, revision));
+    }
+
     private User getCurrentUser(Authentication authentication) {
-        if (authentication == null) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
             throw new RuntimeException("Usuário não autenticado");
         }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // SecurityFilter already resolved the id, a reference avoids loading the User again.
+        return userRepository.getReferenceById(principal.id());
     }
 }
@@ -0,0 +1,28 @@
+package com.projeto.eap.projeto_eap_joao.domain;
+
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+// Entities whose id is set by the application. Spring Data would take the non-null id as an
+// existing row and merge, silently overwriting another row on an id collision; new instances
+// are persisted instead, so a collision fails on the primary key.
+@MappedSuperclass
+public abstract class AssignedIdEntity<ID> implements Persistable<ID> {
+
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -9,10 +9,10 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
-public class Command {
+public class Command extends AssignedIdEntity<Long> {
 
+    // Assigned by GlobalIdAllocator, unique across shards.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private String title;
@@ -25,7 +25,9 @@ public class Command {
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
-    @ManyToOne
+    private Integer revision = 0;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
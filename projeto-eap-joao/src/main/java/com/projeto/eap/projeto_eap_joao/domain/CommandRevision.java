@@ -0,0 +1,44 @@
+package com.projeto.eap.projeto_eap_joao.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"command_id", "revision_number"}))
+@Getter
+@Setter
+public class CommandRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "command_id")
+    private Command command;
+
+    @Column(name = "revision_number")
+    private int revisionNumber;
+
+    private String title;
+
+    @Enumerated(EnumType.STRING)
+    private Technology technology;
+
+    // snapshot = true: content is the full text of the revision.
+    // snapshot = false: content replaces deltaRemoved chars at deltaOffset of the previous revision.
+    private boolean snapshot;
+
+    private Integer deltaOffset;
+
+    private Integer deltaRemoved;
+
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+}
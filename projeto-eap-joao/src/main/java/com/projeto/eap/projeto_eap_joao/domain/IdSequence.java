@@ -0,0 +1,23 @@
+package com.projeto.eap.projeto_eap_joao.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+// Next free id of a global sequence, kept only on the directory shard (see GlobalIdAllocator).
+@Entity
+@Getter
+@Setter
+public class IdSequence extends AssignedIdEntity<String> {
+
+    @Id
+    private String name;
+
+    private long nextValue;
+
+    @Override
+    public String getId() {
+        return name;
+    }
+}
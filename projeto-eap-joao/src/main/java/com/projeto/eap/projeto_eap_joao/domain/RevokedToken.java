@@ -0,0 +1,24 @@
+package com.projeto.eap.projeto_eap_joao.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+public class RevokedToken extends AssignedIdEntity<String> {
+
+    @Id
+    private String jti;
+
+    private Instant expiresAt;
+
+    @Override
+    public String getId() {
+        return jti;
+    }
+}
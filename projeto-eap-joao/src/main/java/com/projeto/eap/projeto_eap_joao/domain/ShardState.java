@@ -0,0 +1,6 @@
+package com.projeto.eap.projeto_eap_joao.domain;
+
+public enum ShardState {
+    ACTIVE,
+    MOVING
+}
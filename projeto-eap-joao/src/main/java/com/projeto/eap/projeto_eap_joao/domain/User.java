@@ -8,10 +8,10 @@ import java.util.List;
 
 @Entity @Getter
 @Setter
-public class User {
+public class User extends AssignedIdEntity<Long> {
 
+    // Assigned from UserShard.userId.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(unique = true)
@@ -19,7 +19,7 @@ public class User {
 
     private String password;
 
-    @OneToMany(cascade = CascadeType.ALL, mappedBy = "user")
+    @OneToMany(mappedBy = "user")
     private List<Command> commands;
 
 }
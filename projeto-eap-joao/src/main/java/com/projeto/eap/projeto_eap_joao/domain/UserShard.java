@@ -0,0 +1,28 @@
+package com.projeto.eap.projeto_eap_joao.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// Shard map, kept only on the directory shard. User ids come from GlobalIdAllocator.
+@Entity
+@Getter
+@Setter
+public class UserShard extends AssignedIdEntity<Long> {
+
+    @Id
+    private Long userId;
+
+    @Column(unique = true)
+    private String username;
+
+    private String shard;
+
+    @Enumerated(EnumType.STRING)
+    private ShardState state = ShardState.ACTIVE;
+
+    @Override
+    public Long getId() {
+        return userId;
+    }
+}
@@ -0,0 +1,14 @@
+package com.projeto.eap.projeto_eap_joao.dto;
+
+import com.projeto.eap.projeto_eap_joao.domain.Technology;
+
+import java.time.LocalDateTime;
+
+public record CommandRevisionResponse(
+    Long commandId,
+    int revision,
+    String title,
+    Technology technology,
+    String content,
+    LocalDateTime createdAt
+) {}
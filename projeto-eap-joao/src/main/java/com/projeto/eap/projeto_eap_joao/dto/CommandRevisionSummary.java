@@ -0,0 +1,13 @@
+package com.projeto.eap.projeto_eap_joao.dto;
+
+import com.projeto.eap.projeto_eap_joao.domain.Technology;
+
+import java.time.LocalDateTime;
+
+public record CommandRevisionSummary(
+    int revision,
+    String title,
+    Technology technology,
+    boolean snapshot,
+    LocalDateTime createdAt
+) {}
@@ -1,5 +1,6 @@
 package com.projeto.eap.projeto_eap_joao.dto;
 
 public record LoginResponse(
-        String token
+        String token,
+        String refreshToken
 ) { }
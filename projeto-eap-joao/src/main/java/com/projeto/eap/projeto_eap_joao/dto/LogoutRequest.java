@@ -0,0 +1,5 @@
+package com.projeto.eap.projeto_eap_joao.dto;
+
+public record LogoutRequest(
+        String refreshToken
+) {}
@@ -0,0 +1,19 @@
+package com.projeto.eap.projeto_eap_joao.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+// Stable wire shape for paged lists; Spring Data does not guarantee the JSON of PageImpl.
+public record PageResponse<T>(
+    List<T> content,
+    long totalElements,
+    int totalPages,
+    int size,
+    int number
+) {
+
+    public static <T> PageResponse<T> from(Page<T> page) {
+        return new PageResponse<>(page.getContent(), page.getTotalElements(), page.getTotalPages(), page.getSize(), page.getNumber());
+    }
+}
@@ -0,0 +1,8 @@
+package com.projeto.eap.projeto_eap_joao.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+        @NotBlank(message = "Informe o refresh token")
+        String refreshToken
+) {}
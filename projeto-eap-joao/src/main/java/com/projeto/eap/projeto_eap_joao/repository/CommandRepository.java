@@ -2,22 +2,46 @@ package com.projeto.eap.projeto_eap_joao.repository;
 
 import com.projeto.eap.projeto_eap_joao.domain.Command;
 import com.projeto.eap.projeto_eap_joao.domain.Technology;
-import com.projeto.eap.projeto_eap_joao.domain.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CommandRepository extends JpaRepository<Command, Long> {
 
-    @Query("SELECT c FROM Command c WHERE c.user = :user " +
+    @Query("SELECT c FROM Command c WHERE c.user.id = :userId " +
            "AND (:search IS NULL OR LOWER(c.title) LIKE LOWER(CONCAT('%', :search, '%')) OR LOWER(c.content) LIKE LOWER(CONCAT('%', :search, '%'))) " +
            "AND (:technology IS NULL OR c.technology = :technology)")
-    Page<Command> findByUserWithFilters(@Param("user") User user,
+    Page<Command> findByUserWithFilters(@Param("userId") Long userId,
                                         @Param("search") String search,
                                         @Param("technology") Technology technology,
                                         Pageable pageable);
+
+    @Query("SELECT c FROM Command c WHERE c.id = :id AND c.user.id = :userId")
+    Optional<Command> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Command c WHERE c.id = :id AND c.user.id = :userId")
+    Optional<Command> findForUpdateByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("SELECT c FROM Command c WHERE c.user.id = :userId ORDER BY c.id")
+    List<Command> findAllByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM Command c")
+    long findMaxId();
+
+    // Clears the persistence context: commands loaded earlier in the transaction would otherwise
+    // keep referencing their user when it is removed next.
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Command c WHERE c.user.id = :userId")
+    void deleteAllByUserId(@Param("userId") Long userId);
 }
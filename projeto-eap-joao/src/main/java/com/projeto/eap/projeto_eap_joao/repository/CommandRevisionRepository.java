@@ -0,0 +1,38 @@
+package com.projeto.eap.projeto_eap_joao.repository;
+
+import com.projeto.eap.projeto_eap_joao.domain.Command;
+import com.projeto.eap.projeto_eap_joao.domain.CommandRevision;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRevisionSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CommandRevisionRepository extends JpaRepository<CommandRevision, Long> {
+
+    @Query("SELECT new com.projeto.eap.projeto_eap_joao.dto.CommandRevisionSummary(" +
+           "r.revisionNumber, r.title, r.technology, r.snapshot, r.createdAt) " +
+           "FROM CommandRevision r WHERE r.command = :command ORDER BY r.revisionNumber DESC")
+    List<CommandRevisionSummary> findSummariesByCommand(@Param("command") Command command);
+
+    @Query("SELECT r FROM CommandRevision r WHERE r.command = :command " +
+           "AND r.revisionNumber BETWEEN :from AND :to ORDER BY r.revisionNumber ASC")
+    List<CommandRevision> findRange(@Param("command") Command command,
+                                    @Param("from") int from,
+                                    @Param("to") int to);
+
+    @Query("SELECT r FROM CommandRevision r WHERE r.command.user.id = :userId ORDER BY r.id")
+    List<CommandRevision> findAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM CommandRevision r WHERE r.command = :command")
+    void deleteByCommand(@Param("command") Command command);
+
+    @Modifying
+    @Query("DELETE FROM CommandRevision r WHERE r.command.id IN (SELECT c.id FROM Command c WHERE c.user.id = :userId)")
+    void deleteAllByUserId(@Param("userId") Long userId);
+}
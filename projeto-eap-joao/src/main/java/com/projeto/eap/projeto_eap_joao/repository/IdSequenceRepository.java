@@ -0,0 +1,17 @@
+package com.projeto.eap.projeto_eap_joao.repository;
+
+import com.projeto.eap.projeto_eap_joao.domain.IdSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface IdSequenceRepository extends JpaRepository<IdSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM IdSequence s WHERE s.name = :name")
+    Optional<IdSequence> findForUpdate(@Param("name") String name);
+}
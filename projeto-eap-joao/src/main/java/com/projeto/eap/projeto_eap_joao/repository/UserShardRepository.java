@@ -0,0 +1,15 @@
+package com.projeto.eap.projeto_eap_joao.repository;
+
+import com.projeto.eap.projeto_eap_joao.domain.UserShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface UserShardRepository extends JpaRepository<UserShard, Long> {
+    Optional<UserShard> findByUsername(String username);
+    boolean existsByUsername(String username);
+
+    @Query("SELECT COALESCE(MAX(s.userId), 0) FROM UserShard s")
+    long findMaxUserId();
+}
@@ -1,8 +1,13 @@
 package com.projeto.eap.projeto_eap_joao.service;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.projeto.eap.projeto_eap_joao.config.ShardContext;
 import com.projeto.eap.projeto_eap_joao.domain.User;
+import com.projeto.eap.projeto_eap_joao.domain.UserShard;
 import com.projeto.eap.projeto_eap_joao.dto.LoginRequest;
 import com.projeto.eap.projeto_eap_joao.dto.LoginResponse;
+import com.projeto.eap.projeto_eap_joao.dto.LogoutRequest;
+import com.projeto.eap.projeto_eap_joao.dto.RefreshRequest;
 import com.projeto.eap.projeto_eap_joao.dto.RegisterRequest;
 import com.projeto.eap.projeto_eap_joao.exceptions.ApiErrorException;
 import com.projeto.eap.projeto_eap_joao.repository.UserRepository;
@@ -20,23 +25,59 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final TokenService tokenService;
     private final AuthenticationManager authenticationManager;
+    private final ShardDirectoryService shardDirectoryService;
 
     public void registerUser(RegisterRequest data) {
-        if(userRepository.existsByUsername(data.username())){
-            throw new ApiErrorException(HttpStatus.BAD_REQUEST, "Nome de usuário já está em uso.");
-        }
+        UserShard location = shardDirectoryService.register(data.username());
         User newUser = new User();
+        newUser.setId(location.getUserId());
         newUser.setUsername(data.username());
         newUser.setPassword(passwordEncoder.encode(data.password()));
-        userRepository.save(newUser);
+        try {
+            ShardContext.runOn(location.getShard(), () -> userRepository.save(newUser));
+        } catch (RuntimeException e) {
+            shardDirectoryService.unregister(location.getUserId());
+            throw e;
+        }
     }
 
     public LoginResponse loginUser(LoginRequest dto) {
         var usernamePassword = new UsernamePasswordAuthenticationToken(dto.username(), dto.password());
         var auth = this.authenticationManager.authenticate(usernamePassword);
-        var user = userRepository.findByUsername(dto.username()).orElseThrow();
-        var token = tokenService.generateToken(user);
+        var user = shardDirectoryService.findUser(dto.username()).orElseThrow();
+        return issueTokens(user);
+    }
+
+    public LoginResponse refresh(RefreshRequest dto) {
+        DecodedJWT refreshToken = tokenService.verifyRefreshToken(dto.refreshToken());
+        if (refreshToken == null) {
+            throw new ApiErrorException(HttpStatus.UNAUTHORIZED, "Refresh token inválido ou expirado.");
+        }
+        var user = shardDirectoryService.findUser(refreshToken.getSubject())
+                .orElseThrow(() -> new ApiErrorException(HttpStatus.UNAUTHORIZED, "Refresh token inválido ou expirado."));
+        // Rotation: each refresh token can be used only once. Revoking is the atomic step, so
+        // of two concurrent refreshes with the same token only one gets new tokens.
+        if (!tokenService.revoke(refreshToken)) {
+            throw new ApiErrorException(HttpStatus.UNAUTHORIZED, "Refresh token inválido ou expirado.");
+        }
+        return issueTokens(user);
+    }
+
+    public void logout(String accessToken, LogoutRequest dto) {
+        DecodedJWT access = tokenService.verifyAccessToken(accessToken);
+        if (access == null) {
+            return;
+        }
+        tokenService.revoke(access);
+        if (dto != null && dto.refreshToken() != null) {
+            DecodedJWT refresh = tokenService.verifyRefreshToken(dto.refreshToken());
+            if (refresh != null && refresh.getSubject().equals(access.getSubject())) {
+                tokenService.revoke(refresh);
+            }
+        }
+    }
 
-        return new LoginResponse(token);
+    private LoginResponse issueTokens(User user) {
+        return new LoginResponse(tokenService.generateToken(user), tokenService.generateRefreshToken(user));
     }
 }
@@ -1,6 +1,5 @@
 package com.projeto.eap.projeto_eap_joao.service;
 
-import com.projeto.eap.projeto_eap_joao.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,11 +9,11 @@ import org.springframework.stereotype.Service;
 @Service @RequiredArgsConstructor
 public class AuthorizationService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final ShardDirectoryService shardDirectoryService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        var user = userRepository.findByUsername(username)
+        var user = shardDirectoryService.findUser(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
 
         return org.springframework.security.core.userdetails.User
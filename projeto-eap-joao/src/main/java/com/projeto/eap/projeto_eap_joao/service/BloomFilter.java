@@ -0,0 +1,64 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings. Lookups hash the chars directly, so they do not allocate.
+ */
+public class BloomFilter {
+
+    private static final long SEED_1 = 0xcbf29ce484222325L;
+    private static final long SEED_2 = 0x84222325cbf29ce4L;
+
+    private final AtomicLongArray words;
+    private final long mask;
+    private final int hashes;
+
+    public BloomFilter(int bits, int hashes) {
+        if (hashes < 1) {
+            throw new IllegalArgumentException("hashes deve ser maior que zero");
+        }
+        long size = 64;
+        while (size < bits) {
+            size <<= 1;
+        }
+        this.words = new AtomicLongArray((int) (size >>> 6));
+        this.mask = size - 1;
+        this.hashes = hashes;
+    }
+
+    public void add(String key) {
+        long h1 = hash(key, SEED_1);
+        long h2 = hash(key, SEED_2) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            words.accumulateAndGet((int) (bit >>> 6), 1L << bit, (current, flag) -> current | flag);
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = hash(key, SEED_1);
+        long h2 = hash(key, SEED_2) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(String key, long seed) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,170 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import com.projeto.eap.projeto_eap_joao.domain.Command;
+import com.projeto.eap.projeto_eap_joao.domain.CommandRevision;
+import com.projeto.eap.projeto_eap_joao.domain.Technology;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRevisionResponse;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRevisionSummary;
+import com.projeto.eap.projeto_eap_joao.exceptions.ApiErrorException;
+import com.projeto.eap.projeto_eap_joao.repository.CommandRevisionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Revisions are stored as forward deltas against the previous revision, with a full
+ * snapshot at the start of every block of {@code snapshotInterval} revisions, so
+ * rebuilding any revision reads at most {@code snapshotInterval} rows.
+ */
+@Service
+public class CommandRevisionService {
+
+    private final CommandRevisionRepository revisionRepository;
+    private final int snapshotInterval;
+
+    public CommandRevisionService(CommandRevisionRepository revisionRepository,
+                                  @Value("${commands.revisions.snapshot-interval:10}") int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("commands.revisions.snapshot-interval deve ser maior que zero");
+        }
+        this.revisionRepository = revisionRepository;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Starts the history of a new command at revision 1. Setting the revision on the command
+     * before inserting it, as CommandService does, saves the UPDATE this would otherwise cause.
+     */
+    public void recordCreation(Command command) {
+        command.setRevision(1);
+        revisionRepository.save(snapshot(command, 1));
+    }
+
+    /**
+     * Must be called before the command fields are overwritten, while they still hold
+     * the previous revision.
+     */
+    public void recordUpdate(Command command, String title, Technology technology, String content) {
+        int current = command.getRevision() != null ? command.getRevision() : 0;
+        if (current == 0) {
+            // Command created before revisions existed: its current state becomes revision 1.
+            revisionRepository.save(snapshot(command, 1));
+            current = 1;
+        }
+
+        int next = current + 1;
+        String previous = command.getContent() != null ? command.getContent() : "";
+        String updated = content != null ? content : "";
+
+        CommandRevision revision = new CommandRevision();
+        revision.setCommand(command);
+        revision.setRevisionNumber(next);
+        revision.setTitle(title);
+        revision.setTechnology(technology);
+
+        if (isBlockStart(next)) {
+            revision.setSnapshot(true);
+            revision.setContent(updated);
+        } else {
+            int prefix = commonPrefix(previous, updated);
+            int suffix = commonSuffix(previous, updated, prefix);
+            int removed = previous.length() - prefix - suffix;
+            String inserted = updated.substring(prefix, updated.length() - suffix);
+            revision.setSnapshot(false);
+            revision.setDeltaOffset(prefix);
+            revision.setDeltaRemoved(removed);
+            revision.setContent(inserted);
+        }
+
+        revisionRepository.save(revision);
+        command.setRevision(next);
+    }
+
+    public List<CommandRevisionSummary> listRevisions(Command command) {
+        return revisionRepository.findSummariesByCommand(command);
+    }
+
+    public CommandRevisionResponse getRevision(Command command, int revisionNumber) {
+        int latest = command.getRevision() != null ? command.getRevision() : 0;
+        if (revisionNumber < 1 || revisionNumber > latest) {
+            throw new ApiErrorException(HttpStatus.NOT_FOUND, "Revisão não encontrada");
+        }
+
+        int blockStart = ((revisionNumber - 1) / snapshotInterval) * snapshotInterval + 1;
+        List<CommandRevision> chain = revisionRepository.findRange(command, blockStart, revisionNumber);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).getRevisionNumber() != revisionNumber) {
+            throw new ApiErrorException(HttpStatus.NOT_FOUND, "Revisão não encontrada");
+        }
+
+        String content = null;
+        for (CommandRevision revision : chain) {
+            if (revision.isSnapshot()) {
+                content = revision.getContent();
+            } else if (content != null) {
+                int offset = revision.getDeltaOffset();
+                content = content.substring(0, offset)
+                        + revision.getContent()
+                        + content.substring(offset + revision.getDeltaRemoved());
+            }
+        }
+        if (content == null) {
+            throw new IllegalStateException("Histórico do comando " + command.getId() + " sem snapshot base para a revisão " + revisionNumber);
+        }
+
+        CommandRevision target = chain.get(chain.size() - 1);
+        return new CommandRevisionResponse(
+                command.getId(),
+                target.getRevisionNumber(),
+                target.getTitle(),
+                target.getTechnology(),
+                content,
+                target.getCreatedAt()
+        );
+    }
+
+    public void deleteRevisions(Command command) {
+        revisionRepository.deleteByCommand(command);
+    }
+
+    private boolean isBlockStart(int revisionNumber) {
+        return (revisionNumber - 1) % snapshotInterval == 0;
+    }
+
+    private CommandRevision snapshot(Command command, int revisionNumber) {
+        CommandRevision revision = new CommandRevision();
+        revision.setCommand(command);
+        revision.setRevisionNumber(revisionNumber);
+        revision.setTitle(command.getTitle());
+        revision.setTechnology(command.getTechnology());
+        revision.setSnapshot(true);
+        revision.setContent(command.getContent() != null ? command.getContent() : "");
+        return revision;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        // Never split a surrogate pair, the inserted text must be valid UTF-16 on its own.
+        if (i > 0 && Character.isHighSurrogate(a.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static int commonSuffix(String a, String b, int prefix) {
+        int max = Math.min(a.length(), b.length()) - prefix;
+        int i = 0;
+        while (i < max && a.charAt(a.length() - 1 - i) == b.charAt(b.length() - 1 - i)) {
+            i++;
+        }
+        if (i > 0 && Character.isLowSurrogate(a.charAt(a.length() - i))) {
+            i--;
+        }
+        return i;
+    }
+}
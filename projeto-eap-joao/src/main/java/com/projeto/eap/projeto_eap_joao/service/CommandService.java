@@ -1,62 +1,122 @@
 package com.projeto.eap.projeto_eap_joao.service;
 
+import com.projeto.eap.projeto_eap_joao.config.ShardContext;
 import com.projeto.eap.projeto_eap_joao.domain.Command;
 import com.projeto.eap.projeto_eap_joao.domain.Technology;
 import com.projeto.eap.projeto_eap_joao.domain.User;
 import com.projeto.eap.projeto_eap_joao.dto.CommandRequest;
 import com.projeto.eap.projeto_eap_joao.dto.CommandResponse;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRevisionResponse;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRevisionSummary;
+import com.projeto.eap.projeto_eap_joao.exceptions.ApiErrorException;
 import com.projeto.eap.projeto_eap_joao.repository.CommandRepository;
+import com.projeto.eap.projeto_eap_joao.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class CommandService {
 
     private final CommandRepository commandRepository;
+    private final UserRepository userRepository;
+    private final CommandRevisionService commandRevisionService;
+    private final GlobalIdAllocator globalIdAllocator;
 
     public Page<CommandResponse> getCommands(User user, String search, Technology technology, Pageable pageable) {
-        Page<Command> commands = commandRepository.findByUserWithFilters(user, search, technology, pageable);
+        Page<Command> commands = commandRepository.findByUserWithFilters(user.getId(), search, technology, pageable);
         return commands.map(this::toResponse);
     }
 
+    @Transactional
     public CommandResponse createCommand(User user, CommandRequest request) {
+        beginWrite(user);
         Command command = new Command();
+        command.setId(globalIdAllocator.nextId(GlobalIdAllocator.COMMANDS));
         command.setTitle(request.title());
         command.setTechnology(request.technology());
         command.setContent(request.content());
         command.setUser(user);
+        command.setRevision(1);
         Command saved = commandRepository.save(command);
+        commandRevisionService.recordCreation(saved);
         return toResponse(saved);
     }
 
+    @Transactional
     public CommandResponse updateCommand(User user, Long id, CommandRequest request) {
-        Command command = commandRepository.findById(id)
-                .filter(c -> c.getUser().equals(user))
-                .orElseThrow(() -> new RuntimeException("Command not found or not owned by user"));
-        command.setTitle(request.title());
-        command.setTechnology(request.technology());
-        command.setContent(request.content());
-        Command saved = commandRepository.save(command);
-        return toResponse(saved);
+        beginWrite(user);
+        Command command = findOwnedCommandForUpdate(user, id);
+        return applyUpdate(command, request.title(), request.technology(), request.content());
     }
 
     public CommandResponse getCommand(User user, Long id) {
-        Command command = commandRepository.findById(id)
-                .filter(c -> c.getUser().equals(user))
-                .orElseThrow(() -> new RuntimeException("Command not found or not owned by user"));
+        Command command = findOwnedCommand(user, id);
         return toResponse(command);
     }
 
+    @Transactional
     public void deleteCommand(User user, Long id) {
-        Command command = commandRepository.findById(id)
-                .filter(c -> c.getUser().equals(user))
-                .orElseThrow(() -> new RuntimeException("Command not found or not owned by user"));
+        beginWrite(user);
+        Command command = findOwnedCommandForUpdate(user, id);
+        commandRevisionService.deleteRevisions(command);
         commandRepository.delete(command);
     }
 
+    public List<CommandRevisionSummary> getRevisions(User user, Long id) {
+        Command command = findOwnedCommand(user, id);
+        return commandRevisionService.listRevisions(command);
+    }
+
+    public CommandRevisionResponse getRevision(User user, Long id, int revision) {
+        Command command = findOwnedCommand(user, id);
+        return commandRevisionService.getRevision(command, revision);
+    }
+
+    @Transactional
+    public CommandResponse restoreRevision(User user, Long id, int revision) {
+        beginWrite(user);
+        Command command = findOwnedCommandForUpdate(user, id);
+        CommandRevisionResponse target = commandRevisionService.getRevision(command, revision);
+        return applyUpdate(command, target.title(), target.technology(), target.content());
+    }
+
+    private CommandResponse applyUpdate(Command command, String title, Technology technology, String content) {
+        commandRevisionService.recordUpdate(command, title, technology, content);
+        command.setTitle(title);
+        command.setTechnology(technology);
+        command.setContent(content);
+        Command saved = commandRepository.save(command);
+        return toResponse(saved);
+    }
+
+    // The owner's row stays share-locked until commit. ShardMoveService locks it exclusively
+    // while it copies the user, so a write either commits before the copy or runs after the
+    // move, when the user is no longer on this shard.
+    private void beginWrite(User user) {
+        ShardContext.requireWritable();
+        if (userRepository.findForCommandWriteById(user.getId()).isEmpty()) {
+            throw new ApiErrorException(HttpStatus.CONFLICT, "Seus dados foram migrados, tente novamente.");
+        }
+    }
+
+    private Command findOwnedCommand(User user, Long id) {
+        return commandRepository.findByIdAndUserId(id, user.getId())
+                .orElseThrow(() -> new RuntimeException("Command not found or not owned by user"));
+    }
+
+    // Row lock held until commit, so concurrent writes to one command see each other's revision number.
+    private Command findOwnedCommandForUpdate(User user, Long id) {
+        return commandRepository.findForUpdateByIdAndUserId(id, user.getId())
+                .orElseThrow(() -> new RuntimeException("Command not found or not owned by user"));
+    }
+
     private CommandResponse toResponse(Command command) {
         return new CommandResponse(
                 command.getId(),
@@ -0,0 +1,116 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import com.projeto.eap.projeto_eap_joao.config.ShardContext;
+import com.projeto.eap.projeto_eap_joao.config.ShardingProperties;
+import com.projeto.eap.projeto_eap_joao.domain.IdSequence;
+import com.projeto.eap.projeto_eap_joao.repository.CommandRepository;
+import com.projeto.eap.projeto_eap_joao.repository.IdSequenceRepository;
+import com.projeto.eap.projeto_eap_joao.repository.UserShardRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out user and command ids that are unique across all shards, so a user's rows can
+ * be copied to another shard with their ids unchanged. Each instance reserves a block of
+ * sharding.id-block-size ids at a time from the id_sequence row on the directory shard, in
+ * its own transaction, and serves the block from memory.
+ */
+@Service
+public class GlobalIdAllocator {
+
+    public static final String USERS = "user";
+    public static final String COMMANDS = "command";
+
+    private final IdSequenceRepository idSequenceRepository;
+    private final UserShardRepository userShardRepository;
+    private final CommandRepository commandRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate ownTransaction;
+    private final int blockSize;
+
+    private final Map<String, Block> blocks = new HashMap<>();
+
+    public GlobalIdAllocator(IdSequenceRepository idSequenceRepository,
+                             UserShardRepository userShardRepository,
+                             CommandRepository commandRepository,
+                             ShardRouter shardRouter,
+                             ShardingProperties shardingProperties,
+                             PlatformTransactionManager transactionManager) {
+        if (shardingProperties.getIdBlockSize() < 1) {
+            throw new IllegalArgumentException("sharding.id-block-size deve ser maior que zero");
+        }
+        this.idSequenceRepository = idSequenceRepository;
+        this.userShardRepository = userShardRepository;
+        this.commandRepository = commandRepository;
+        this.shardRouter = shardRouter;
+        this.blockSize = shardingProperties.getIdBlockSize();
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public synchronized long nextId(String sequence) {
+        Block block = blocks.get(sequence);
+        if (block == null || block.next == block.end) {
+            block = reserve(sequence);
+            blocks.put(sequence, block);
+        }
+        return block.next++;
+    }
+
+    private Block reserve(String sequence) {
+        Block reserved = ShardContext.callOn(shardRouter.directoryShard(), () -> ownTransaction.execute(status ->
+                idSequenceRepository.findForUpdate(sequence).map(this::take).orElse(null)));
+        if (reserved != null) {
+            return reserved;
+        }
+
+        // First use: start after the ids handed out before this sequence existed.
+        long start = currentMax(sequence) + 1;
+        try {
+            return ShardContext.callOn(shardRouter.directoryShard(), () -> ownTransaction.execute(status -> {
+                IdSequence created = new IdSequence();
+                created.setName(sequence);
+                created.setNextValue(start + blockSize);
+                idSequenceRepository.save(created);
+                return new Block(start, start + blockSize);
+            }));
+        } catch (DataIntegrityViolationException createdByAnotherInstance) {
+            return reserve(sequence);
+        }
+    }
+
+    private Block take(IdSequence sequence) {
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + blockSize);
+        return new Block(start, start + blockSize);
+    }
+
+    private long currentMax(String sequence) {
+        return switch (sequence) {
+            case USERS -> ShardContext.callOn(shardRouter.directoryShard(),
+                    () -> ownTransaction.execute(status -> userShardRepository.findMaxUserId()));
+            case COMMANDS -> shardRouter.shards().stream()
+                    .mapToLong(shard -> ShardContext.callOn(shard,
+                            () -> ownTransaction.execute(status -> commandRepository.findMaxId())))
+                    .max()
+                    .orElse(0);
+            default -> throw new IllegalArgumentException("Sequência desconhecida: " + sequence);
+        };
+    }
+
+    private static final class Block {
+        private long next;
+        private final long end;
+
+        private Block(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+    }
+}
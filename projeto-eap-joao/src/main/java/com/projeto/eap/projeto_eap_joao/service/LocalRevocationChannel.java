@@ -0,0 +1,32 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+// Single node stand-in: delivers revocations only inside this JVM.
+@Component
+public class LocalRevocationChannel implements RevocationChannel {
+
+    private final List<BiConsumer<String, Instant>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public void publish(String jti, Instant expiresAt) {
+        for (BiConsumer<String, Instant> listener : listeners) {
+            listener.accept(jti, expiresAt);
+        }
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, Instant> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,20 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import java.time.Instant;
+import java.util.function.BiConsumer;
+
+/**
+ * Spreads token revocations to the other nodes. Implementations must deliver every
+ * published revocation to the subscribers of all nodes (the publishing one included is fine).
+ * Missed messages are recovered by the periodic rebuild in TokenRevocationService.
+ * Every implementation is registered; auth.revocation.channel picks one by {@link #name()}
+ * at startup, so AOT builds (faststart) can still switch channels at runtime.
+ */
+public interface RevocationChannel {
+
+    String name();
+
+    void publish(String jti, Instant expiresAt);
+
+    void subscribe(BiConsumer<String, Instant> listener);
+}
@@ -0,0 +1,107 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import com.projeto.eap.projeto_eap_joao.config.ShardContext;
+import com.projeto.eap.projeto_eap_joao.domain.ShardState;
+import com.projeto.eap.projeto_eap_joao.domain.User;
+import com.projeto.eap.projeto_eap_joao.domain.UserShard;
+import com.projeto.eap.projeto_eap_joao.exceptions.ApiErrorException;
+import com.projeto.eap.projeto_eap_joao.repository.UserRepository;
+import com.projeto.eap.projeto_eap_joao.repository.UserShardRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+@Service
+public class ShardDirectoryService {
+
+    private final UserShardRepository userShardRepository;
+    private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final GlobalIdAllocator globalIdAllocator;
+    // Map writes commit on their own, also when called inside a transaction on another shard (see ShardMoveService).
+    private final TransactionTemplate transactionTemplate;
+
+    public ShardDirectoryService(UserShardRepository userShardRepository,
+                                 UserRepository userRepository,
+                                 ShardRouter shardRouter,
+                                 GlobalIdAllocator globalIdAllocator,
+                                 PlatformTransactionManager transactionManager) {
+        this.userShardRepository = userShardRepository;
+        this.userRepository = userRepository;
+        this.shardRouter = shardRouter;
+        this.globalIdAllocator = globalIdAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Deployments from before the shard map have users but no map entries: all of them
+    // live in the single database, which is now the directory shard.
+    @PostConstruct
+    public void backfill() {
+        String directory = shardRouter.directoryShard();
+        try {
+            ShardContext.runOn(directory, () -> transactionTemplate.executeWithoutResult(status -> {
+                if (userShardRepository.count() > 0) {
+                    return;
+                }
+                for (User user : userRepository.findAll()) {
+                    UserShard location = new UserShard();
+                    location.setUserId(user.getId());
+                    location.setUsername(user.getUsername());
+                    location.setShard(directory);
+                    userShardRepository.save(location);
+                }
+            }));
+        } catch (DataIntegrityViolationException filledByAnotherInstance) {
+            // Another instance started at the same time and wrote the same entries.
+        }
+    }
+
+    public Optional<UserShard> findByUsername(String username) {
+        return ShardContext.callOn(shardRouter.directoryShard(), () -> userShardRepository.findByUsername(username));
+    }
+
+    public Optional<UserShard> findByUserId(Long userId) {
+        return ShardContext.callOn(shardRouter.directoryShard(), () -> userShardRepository.findById(userId));
+    }
+
+    public Optional<User> findUser(String username) {
+        return findByUsername(username)
+                .flatMap(location -> ShardContext.callOn(location.getShard(),
+                        () -> userRepository.findById(location.getUserId())));
+    }
+
+    public UserShard register(String username) {
+        long userId = globalIdAllocator.nextId(GlobalIdAllocator.USERS);
+        return ShardContext.callOn(shardRouter.directoryShard(), () -> transactionTemplate.execute(status -> {
+            if (userShardRepository.existsByUsername(username)) {
+                throw new ApiErrorException(HttpStatus.BAD_REQUEST, "Nome de usuário já está em uso.");
+            }
+            UserShard location = new UserShard();
+            location.setUserId(userId);
+            location.setUsername(username);
+            location.setShard(shardRouter.shardFor(userId));
+            return userShardRepository.save(location);
+        }));
+    }
+
+    public void unregister(Long userId) {
+        ShardContext.runOn(shardRouter.directoryShard(),
+                () -> transactionTemplate.executeWithoutResult(status -> userShardRepository.deleteById(userId)));
+    }
+
+    public void updateLocation(Long userId, String shard, ShardState state) {
+        ShardContext.runOn(shardRouter.directoryShard(), () -> transactionTemplate.executeWithoutResult(status -> {
+            UserShard location = userShardRepository.findById(userId)
+                    .orElseThrow(() -> new ApiErrorException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
+            location.setShard(shard);
+            location.setState(state);
+        }));
+    }
+}
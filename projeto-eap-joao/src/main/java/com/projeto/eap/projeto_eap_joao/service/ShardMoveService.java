@@ -0,0 +1,145 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import com.projeto.eap.projeto_eap_joao.config.ShardContext;
+import com.projeto.eap.projeto_eap_joao.domain.Command;
+import com.projeto.eap.projeto_eap_joao.domain.CommandRevision;
+import com.projeto.eap.projeto_eap_joao.domain.ShardState;
+import com.projeto.eap.projeto_eap_joao.domain.User;
+import com.projeto.eap.projeto_eap_joao.domain.UserShard;
+import com.projeto.eap.projeto_eap_joao.exceptions.ApiErrorException;
+import com.projeto.eap.projeto_eap_joao.repository.CommandRepository;
+import com.projeto.eap.projeto_eap_joao.repository.CommandRevisionRepository;
+import com.projeto.eap.projeto_eap_joao.repository.UserRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves a user and all of their commands to another shard while the service is running.
+ * The user's row on the source shard is locked exclusively for the whole move; command
+ * writes take a shared lock on the same row (CommandService), so each one either commits
+ * before the data is read or waits and then finds the user gone from the source. Reads
+ * keep going to the source until the shard map is flipped. User and command ids are
+ * global, so they are copied unchanged.
+ */
+@Service
+public class ShardMoveService {
+
+    private final ShardDirectoryService shardDirectoryService;
+    private final ShardRouter shardRouter;
+    private final UserRepository userRepository;
+    private final CommandRepository commandRepository;
+    private final CommandRevisionRepository commandRevisionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate targetTransaction;
+
+    public ShardMoveService(ShardDirectoryService shardDirectoryService,
+                            ShardRouter shardRouter,
+                            UserRepository userRepository,
+                            CommandRepository commandRepository,
+                            CommandRevisionRepository commandRevisionRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.shardDirectoryService = shardDirectoryService;
+        this.shardRouter = shardRouter;
+        this.userRepository = userRepository;
+        this.commandRepository = commandRepository;
+        this.commandRevisionRepository = commandRevisionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The target shard is written while the source transaction still holds the lock.
+        this.targetTransaction = new TransactionTemplate(transactionManager);
+        this.targetTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void moveUser(Long userId, String targetShard) {
+        if (!shardRouter.shards().contains(targetShard)) {
+            throw new ApiErrorException(HttpStatus.BAD_REQUEST, "Shard desconhecido: " + targetShard);
+        }
+        UserShard location = shardDirectoryService.findByUserId(userId)
+                .orElseThrow(() -> new ApiErrorException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
+        String sourceShard = location.getShard();
+        if (sourceShard.equals(targetShard)) {
+            return;
+        }
+        if (location.getState() == ShardState.MOVING) {
+            throw new ApiErrorException(HttpStatus.CONFLICT, "Usuário " + userId + " já está em migração");
+        }
+
+        // Lets new writes fail fast instead of queueing on the lock.
+        shardDirectoryService.updateLocation(userId, sourceShard, ShardState.MOVING);
+        try {
+            ShardContext.runOn(sourceShard, () -> transactionTemplate.executeWithoutResult(status -> {
+                UserData data = lockAndRead(userId);
+                ShardContext.runOn(targetShard, () -> targetTransaction.executeWithoutResult(copy -> copyUserData(data)));
+                try {
+                    shardDirectoryService.updateLocation(userId, targetShard, ShardState.ACTIVE);
+                } catch (RuntimeException e) {
+                    ShardContext.runOn(targetShard, () -> targetTransaction.executeWithoutResult(cleanup -> deleteUserData(userId)));
+                    throw e;
+                }
+                // Same transaction as the lock: waiting writers see the user gone once it commits.
+                deleteUserData(userId);
+            }));
+        } catch (RuntimeException e) {
+            // Once the map points at the target the move has happened; only an unfinished one is undone.
+            if (shardDirectoryService.findByUserId(userId).map(UserShard::getState).orElse(null) == ShardState.MOVING) {
+                shardDirectoryService.updateLocation(userId, sourceShard, ShardState.ACTIVE);
+            }
+            throw e;
+        }
+    }
+
+    private UserData lockAndRead(Long userId) {
+        User user = userRepository.findForMoveById(userId)
+                .orElseThrow(() -> new IllegalStateException("Usuário " + userId + " não existe no shard de origem"));
+        return new UserData(user, commandRepository.findAllByUserId(userId), commandRevisionRepository.findAllByUserId(userId));
+    }
+
+    private void copyUserData(UserData data) {
+        User user = new User();
+        user.setId(data.user().getId());
+        user.setUsername(data.user().getUsername());
+        user.setPassword(data.user().getPassword());
+        user = userRepository.save(user);
+
+        Map<Long, Command> copies = new HashMap<>();
+        for (Command source : data.commands()) {
+            Command copy = new Command();
+            copy.setId(source.getId());
+            copy.setTitle(source.getTitle());
+            copy.setTechnology(source.getTechnology());
+            copy.setContent(source.getContent());
+            copy.setCreatedAt(source.getCreatedAt());
+            copy.setRevision(source.getRevision());
+            copy.setUser(user);
+            copies.put(source.getId(), commandRepository.save(copy));
+        }
+
+        for (CommandRevision source : data.revisions()) {
+            CommandRevision copy = new CommandRevision();
+            copy.setCommand(copies.get(source.getCommand().getId()));
+            copy.setRevisionNumber(source.getRevisionNumber());
+            copy.setTitle(source.getTitle());
+            copy.setTechnology(source.getTechnology());
+            copy.setSnapshot(source.isSnapshot());
+            copy.setDeltaOffset(source.getDeltaOffset());
+            copy.setDeltaRemoved(source.getDeltaRemoved());
+            copy.setContent(source.getContent());
+            copy.setCreatedAt(source.getCreatedAt());
+            commandRevisionRepository.save(copy);
+        }
+    }
+
+    private void deleteUserData(Long userId) {
+        commandRevisionRepository.deleteAllByUserId(userId);
+        commandRepository.deleteAllByUserId(userId);
+        userRepository.deleteById(userId);
+    }
+
+    private record UserData(User user, List<Command> commands, List<CommandRevision> revisions) {}
+}
@@ -0,0 +1,53 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import com.projeto.eap.projeto_eap_joao.config.ShardRoutingDataSource;
+import com.projeto.eap.projeto_eap_joao.config.ShardingProperties;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Service
+public class ShardRouter {
+
+    public static final String DEFAULT_SHARD = "default";
+
+    private final Set<String> shards;
+    private final String directoryShard;
+    private final ConsistentHashRing ring;
+
+    public ShardRouter(ShardingProperties properties, DataSource dataSource) {
+        if (properties.isEnabled()) {
+            if (properties.getShards().isEmpty()) {
+                throw new IllegalStateException("sharding.enabled=true exige ao menos um sharding.shards.<nome>.url");
+            }
+            // ShardingConfig is chosen by a property condition, which an AOT build decides when it is generated.
+            if (!(dataSource instanceof ShardRoutingDataSource)) {
+                throw new IllegalStateException("sharding.enabled=true, mas o DataSource não roteia entre shards: "
+                        + "ShardingConfig não foi registrado. Builds AOT (perfil faststart) precisam ser gerados com sharding.enabled=true");
+            }
+            this.shards = new LinkedHashSet<>(properties.getShards().keySet());
+            this.directoryShard = properties.resolvedDirectory();
+            if (!shards.contains(directoryShard)) {
+                throw new IllegalStateException("sharding.directory '" + directoryShard + "' não está em sharding.shards");
+            }
+        } else {
+            this.shards = Set.of(DEFAULT_SHARD);
+            this.directoryShard = DEFAULT_SHARD;
+        }
+        this.ring = new ConsistentHashRing(shards, properties.getVirtualNodes());
+    }
+
+    public String shardFor(Long userId) {
+        return ring.nodeFor(String.valueOf(userId));
+    }
+
+    public String directoryShard() {
+        return directoryShard;
+    }
+
+    public Set<String> shards() {
+        return shards;
+    }
+}
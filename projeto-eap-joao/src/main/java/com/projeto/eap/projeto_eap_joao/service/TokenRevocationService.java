@@ -0,0 +1,135 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import com.projeto.eap.projeto_eap_joao.config.ShardContext;
+import com.projeto.eap.projeto_eap_joao.domain.RevokedToken;
+import com.projeto.eap.projeto_eap_joao.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory denylist of revoked token ids (jti). A Bloom filter answers the common
+ * "not revoked" case; only its positives go to the exact set. The persistent
+ * revoked_token table is the source of truth: it is loaded at startup and reloaded
+ * periodically, which also drops entries whose token has expired.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevocationChannel revocationChannel;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int bloomBits;
+    private final int bloomHashes;
+
+    private final Object lock = new Object();
+    private volatile Denylist denylist;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  List<RevocationChannel> revocationChannels,
+                                  @Value("${auth.revocation.channel:local}") String channel,
+                                  ShardRouter shardRouter,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${auth.revocation.bloom-bits:1048576}") int bloomBits,
+                                  @Value("${auth.revocation.bloom-hashes:5}") int bloomHashes) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revocationChannel = revocationChannels.stream()
+                .filter(candidate -> candidate.name().equals(channel))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("auth.revocation.channel desconhecido: " + channel));
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.bloomBits = bloomBits;
+        this.bloomHashes = bloomHashes;
+        this.denylist = new Denylist(bloomBits, bloomHashes);
+    }
+
+    @PostConstruct
+    public void init() {
+        revocationChannel.subscribe(this::apply);
+        rebuild();
+    }
+
+    // Called on every authenticated request: no allocation, no locking, no I/O.
+    public boolean isRevoked(String jti) {
+        Denylist current = denylist;
+        return current.bloom.mightContain(jti) && current.exact.containsKey(jti);
+    }
+
+    /**
+     * Returns false if the token was already revoked, by this or any other instance: the
+     * insert fails on the jti primary key, so of two concurrent calls only one returns true.
+     */
+    public boolean revoke(String jti, Instant expiresAt) {
+        boolean inserted;
+        try {
+            ShardContext.runOn(shardRouter.directoryShard(), () -> transactionTemplate.executeWithoutResult(status -> {
+                RevokedToken revoked = new RevokedToken();
+                revoked.setJti(jti);
+                revoked.setExpiresAt(expiresAt);
+                revokedTokenRepository.save(revoked);
+            }));
+            inserted = true;
+        } catch (DataIntegrityViolationException alreadyRevoked) {
+            inserted = false;
+        }
+        apply(jti, expiresAt);
+        if (inserted) {
+            revocationChannel.publish(jti, expiresAt);
+        }
+        return inserted;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.cleanup-interval-ms:600000}",
+               initialDelayString = "${auth.revocation.cleanup-interval-ms:600000}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        List<RevokedToken> active = ShardContext.callOn(shardRouter.directoryShard(), () -> transactionTemplate.execute(status -> {
+            revokedTokenRepository.deleteExpired(now);
+            return revokedTokenRepository.findByExpiresAtAfter(now);
+        }));
+
+        Denylist rebuilt = new Denylist(bloomBits, bloomHashes);
+        for (RevokedToken revoked : active) {
+            rebuilt.add(revoked.getJti(), revoked.getExpiresAt());
+        }
+        synchronized (lock) {
+            // Keep what arrived while the table was being read.
+            denylist.exact.forEach((jti, expiresAt) -> {
+                if (expiresAt.isAfter(now)) {
+                    rebuilt.add(jti, expiresAt);
+                }
+            });
+            denylist = rebuilt;
+        }
+    }
+
+    private void apply(String jti, Instant expiresAt) {
+        synchronized (lock) {
+            denylist.add(jti, expiresAt);
+        }
+    }
+
+    private static final class Denylist {
+        private final BloomFilter bloom;
+        private final ConcurrentHashMap<String, Instant> exact = new ConcurrentHashMap<>();
+
+        private Denylist(int bits, int hashes) {
+            this.bloom = new BloomFilter(bits, hashes);
+        }
+
+        private void add(String jti, Instant expiresAt) {
+            // Exact set first, so a Bloom hit always finds the entry.
+            exact.put(jti, expiresAt);
+            bloom.add(jti);
+        }
+    }
+}
@@ -4,45 +4,90 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.projeto.eap.projeto_eap_joao.domain.User;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.UUID;
 
-@Service
+@Service @RequiredArgsConstructor
 public class TokenService {
 
+    private static final String TYPE_CLAIM = "type";
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
+
+    private final TokenRevocationService tokenRevocationService;
+
     private String secret = "minha-chave-super-secreta-do-projeto";
 
     public String generateToken(User user) {
+        return generate(user, ACCESS, genExpirationDate());
+    }
+
+    public String generateRefreshToken(User user) {
+        return generate(user, REFRESH, genRefreshExpirationDate());
+    }
+
+    public String validateToken(String token) {
+        DecodedJWT jwt = verifyAccessToken(token);
+        return jwt != null ? jwt.getSubject() : "";
+    }
+
+    public DecodedJWT verifyAccessToken(String token) {
+        return verify(token, ACCESS);
+    }
+
+    public DecodedJWT verifyRefreshToken(String token) {
+        return verify(token, REFRESH);
+    }
+
+    // False if the token had already been revoked.
+    public boolean revoke(DecodedJWT token) {
+        return tokenRevocationService.revoke(token.getId(), token.getExpiresAtAsInstant());
+    }
+
+    private String generate(User user, String type, Instant expiresAt) {
         try {
             Algorithm algorithm = Algorithm.HMAC256(secret);
             return JWT.create()
                     .withIssuer("auth-api")
                     .withSubject(user.getUsername())
-                    .withExpiresAt(genExpirationDate())
+                    .withJWTId(UUID.randomUUID().toString())
+                    .withClaim(TYPE_CLAIM, type)
+                    .withExpiresAt(expiresAt)
                     .sign(algorithm);
         } catch (JWTCreationException exception) {
             throw new RuntimeException("Erro ao gerar token", exception);
         }
     }
 
-    public String validateToken(String token) {
+    private DecodedJWT verify(String token, String type) {
         try {
             Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
+            DecodedJWT jwt = JWT.require(algorithm)
                     .withIssuer("auth-api")
+                    .withClaim(TYPE_CLAIM, type)
                     .build()
-                    .verify(token)
-                    .getSubject();
+                    .verify(token);
+            if (jwt.getId() == null || tokenRevocationService.isRevoked(jwt.getId())) {
+                return null;
+            }
+            return jwt;
         } catch (JWTVerificationException exception) {
-            return "";
+            return null;
         }
     }
 
     private Instant genExpirationDate() {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
-}
\ No newline at end of file
+
+    private Instant genRefreshExpirationDate() {
+        return LocalDateTime.now().plusDays(7).toInstant(ZoneOffset.of("-03:00"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.projeto.eap.projeto_eap_joao;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs in the failsafe phase of {@code ./mvnw -Pfaststart verify}. Boots the packaged jar on
+ * the default profile and the extracted faststart jar with its AOT code and CDS archive, each
+ * in a fresh JVM, and measures the time until the first HTTP request is answered. Results go
+ * to target/startup-benchmark.properties; the build fails if faststart takes more than
+ * -Dstartup.max-ratio (default 0.8) of the default profile's time.
+ */
+class StartupBenchmarkIT {
+
+    private static final Path WORK_DIR = Path.of("target", "startup-benchmark");
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    @Test
+    void fastStartArtifactServesFirstRequestFasterThanDefault() throws Exception {
+        Path defaultJar = requiredFile("startup.default-jar");
+        Path fastStartJar = requiredFile("startup.faststart-jar");
+        Path cdsArchive = requiredFile("startup.cds-archive");
+        resetWorkDir();
+        String dbUrl = "jdbc:h2:file:" + WORK_DIR.toAbsolutePath().resolve("db") + ";MODE=MySQL;NON_KEYWORDS=USER";
+
+        // Default profile first: it also creates the schema that faststart only validates.
+        long defaultMillis = timeToFirstRequest("default", dbUrl, List.of("-jar", defaultJar.toString()));
+        // -Xshare:on makes the JVM fail instead of silently starting without an archive it cannot use.
+        long fastStartMillis = timeToFirstRequest("faststart", dbUrl, List.of(
+                "-XX:SharedArchiveFile=" + cdsArchive,
+                "-Xshare:on",
+                "-Dspring.aot.enabled=true",
+                "-jar", fastStartJar.toString()));
+
+        double maxRatio = Double.parseDouble(System.getProperty("startup.max-ratio", "0.8"));
+        double ratio = (double) fastStartMillis / defaultMillis;
+        Files.writeString(Path.of("target", "startup-benchmark.properties"),
+                "default.time-to-first-request-ms=" + defaultMillis + "\n" +
+                "faststart.time-to-first-request-ms=" + fastStartMillis + "\n" +
+                "faststart.ratio=" + String.format("%.3f", ratio) + "\n" +
+                "faststart.max-ratio=" + maxRatio + "\n");
+
+        assertTrue(ratio <= maxRatio,
+                "faststart levou " + fastStartMillis + "ms até a primeira requisição, " + String.format("%.2f", ratio)
+                        + " do perfil default (" + defaultMillis + "ms, limite " + maxRatio + ")");
+    }
+
+    private long timeToFirstRequest(String profile, String dbUrl, List<String> launch) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(launch);
+        command.add("--spring.profiles.active=" + profile);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=" + dbUrl);
+        command.add("--spring.datasource.driverClassName=org.h2.Driver");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+
+        File log = WORK_DIR.resolve(profile + ".log").toFile();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/commands")).GET().build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Aplicação (" + profile + ") encerrou na inicialização, veja " + log);
+                }
+                try {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                    return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                } catch (IOException notListeningYet) {
+                    Thread.sleep(20);
+                }
+            }
+            throw new IllegalStateException("Aplicação (" + profile + ") não respondeu em " + TIMEOUT + ", veja " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static Path requiredFile(String property) {
+        String value = System.getProperty(property);
+        if (value == null || !Files.isRegularFile(Path.of(value))) {
+            throw new IllegalStateException(property + " não aponta para um arquivo (" + value + "), rode com ./mvnw -Pfaststart verify");
+        }
+        return Path.of(value);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void resetWorkDir() throws IOException {
+        if (Files.exists(WORK_DIR)) {
+            try (Stream<Path> paths = Files.walk(WORK_DIR)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+        Files.createDirectories(WORK_DIR);
+    }
+}
@@ -0,0 +1,70 @@
+package com.projeto.eap.projeto_eap_joao.config;
+
+import com.projeto.eap.projeto_eap_joao.ProjetoEapJoaoApplication;
+import com.projeto.eap.projeto_eap_joao.exceptions.ApiErrorException;
+import com.projeto.eap.projeto_eap_joao.service.ShardMoveService;
+import com.projeto.eap.projeto_eap_joao.service.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ShardMoveRunnerTest {
+
+    @Test
+    void processTerminatesAfterTheMove(@TempDir Path dir) throws Exception {
+        // Already on the target shard, so the move succeeds without touching any data.
+        Path data = Files.writeString(dir.resolve("data.sql"),
+                "INSERT INTO user_shard (user_id, username, shard, state) VALUES (7, 'mover', '"
+                        + ShardRouter.DEFAULT_SHARD + "', 'ACTIVE');");
+        Path log = dir.resolve("shard-move.log");
+        List<String> command = List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                ProjetoEapJoaoApplication.class.getName(),
+                "--spring.profiles.active=test",
+                "--spring.main.web-application-type=none",
+                "--spring.jpa.defer-datasource-initialization=true",
+                "--spring.sql.init.mode=always",
+                "--spring.sql.init.data-locations=file:" + data,
+                "--sharding.move.user-id=7",
+                "--sharding.move.target=" + ShardRouter.DEFAULT_SHARD);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            assertTrue(process.waitFor(120, TimeUnit.SECONDS), "o processo não encerrou após a migração:\n" + Files.readString(log));
+            assertEquals(0, process.exitValue(), Files.readString(log));
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+
+    @Test
+    void closesTheContextAndExitsWithOneWhenTheMoveFails() {
+        ShardMoveService shardMoveService = mock(ShardMoveService.class);
+        doThrow(new ApiErrorException(HttpStatus.NOT_FOUND, "Usuário não encontrado"))
+                .when(shardMoveService).moveUser(42L, "shard-b");
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+        List<Integer> exitCodes = new ArrayList<>();
+        ShardMoveRunner runner = new ShardMoveRunner(shardMoveService, context, 42L, "shard-b");
+        runner.exit = exitCodes::add;
+
+        runner.run(new DefaultApplicationArguments());
+
+        verify(context).close();
+        assertEquals(List.of(1), exitCodes);
+    }
+}
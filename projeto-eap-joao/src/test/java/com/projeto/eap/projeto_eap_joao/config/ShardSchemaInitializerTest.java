@@ -0,0 +1,73 @@
+package com.projeto.eap.projeto_eap_joao.config;
+
+import com.projeto.eap.projeto_eap_joao.ProjetoEapJoaoApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardSchemaInitializerTest {
+
+    private static final String SHARD_B = "jdbc:h2:mem:ddl_shard_b;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void createDropCreatesTheSchemaOnEveryShardAndDropsItOnClose() throws Exception {
+        // A leftover table from an earlier schema: create drops what it manages and recreates it.
+        try (Connection connection = DriverManager.getConnection(SHARD_B, "sa", "")) {
+            connection.createStatement().execute("CREATE TABLE command (id BIGINT PRIMARY KEY, stale VARCHAR(10))");
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProjetoEapJoaoApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--sharding.enabled=true",
+                        "--sharding.shards.shard-a.url=jdbc:h2:mem:ddl_shard_a;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                        "--sharding.shards.shard-b.url=" + SHARD_B,
+                        "--sharding.shards.shard-b.username=sa",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop")) {
+            assertTrue(tables().contains("COMMAND"));
+            assertTrue(tables().contains("USER"));
+            assertTrue(columns("COMMAND").contains("TITLE"));
+            assertFalse(columns("COMMAND").contains("STALE"), "create deveria recriar a tabela");
+        }
+
+        assertEquals(Set.of(), tables());
+    }
+
+    @Test
+    void rejectsDdlAutoValuesItCannotApply() {
+        ShardSchemaInitializer initializer = new ShardSchemaInitializer(new ShardSchemaIntegrator(), null, "drop");
+
+        assertThrows(IllegalStateException.class, initializer::afterPropertiesSet);
+    }
+
+    private static Set<String> tables() throws Exception {
+        return names("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'");
+    }
+
+    private static Set<String> columns(String table) throws Exception {
+        return names("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE UPPER(TABLE_NAME) = '" + table + "'");
+    }
+
+    private static Set<String> names(String query) throws Exception {
+        Set<String> names = new HashSet<>();
+        try (Connection connection = DriverManager.getConnection(SHARD_B, "sa", "");
+             ResultSet rows = connection.createStatement().executeQuery(query)) {
+            while (rows.next()) {
+                names.add(rows.getString(1).toUpperCase());
+            }
+        }
+        return names;
+    }
+}
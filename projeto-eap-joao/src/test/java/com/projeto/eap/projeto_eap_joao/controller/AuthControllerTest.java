@@ -0,0 +1,138 @@
+package com.projeto.eap.projeto_eap_joao.controller;
+
+import com.auth0.jwt.JWT;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projeto.eap.projeto_eap_joao.dto.RegisterRequest;
+import com.projeto.eap.projeto_eap_joao.repository.RevokedTokenRepository;
+import com.projeto.eap.projeto_eap_joao.service.AuthService;
+import com.projeto.eap.projeto_eap_joao.service.LocalRevocationChannel;
+import com.projeto.eap.projeto_eap_joao.service.ShardRouter;
+import com.projeto.eap.projeto_eap_joao.service.TokenRevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String username;
+
+    @BeforeEach
+    void setUp() {
+        username = "auth-" + UUID.randomUUID();
+        authService.registerUser(new RegisterRequest(username, "secret"));
+    }
+
+    @Test
+    void logoutRevokesAccessAndRefreshTokens() throws Exception {
+        JsonNode tokens = login();
+        String access = tokens.get("token").asText();
+        String refresh = tokens.get("refreshToken").asText();
+
+        mockMvc.perform(get("/commands").header("Authorization", "Bearer " + access))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/logout").header("Authorization", "Bearer " + access)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refresh + "\"}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/commands").header("Authorization", "Bearer " + access))
+                .andExpect(status().isForbidden());
+        refresh(refresh).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refreshRotatesTheRefreshToken() throws Exception {
+        String refresh = login().get("refreshToken").asText();
+
+        JsonNode rotated = objectMapper.readTree(refresh(refresh)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        mockMvc.perform(get("/commands").header("Authorization", "Bearer " + rotated.get("token").asText()))
+                .andExpect(status().isOk());
+        refresh(refresh).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refreshTokenUsedByAnotherNodeIsRejected() throws Exception {
+        String refresh = login().get("refreshToken").asText();
+
+        // Another instance rotated this token first; this node has not heard of it yet.
+        TokenRevocationService otherNode = new TokenRevocationService(revokedTokenRepository,
+                List.of(new LocalRevocationChannel()), "local", shardRouter, transactionTemplate, 1 << 16, 5);
+        var decoded = JWT.decode(refresh);
+        assertTrue(otherNode.revoke(decoded.getId(), decoded.getExpiresAtAsInstant()));
+
+        refresh(refresh).andExpect(status().isUnauthorized());
+        assertFalse(otherNode.revoke(decoded.getId(), decoded.getExpiresAtAsInstant()));
+    }
+
+    @Test
+    void denylistIsRebuiltFromTheRevocationTable() throws Exception {
+        String access = login().get("token").asText();
+        mockMvc.perform(post("/auth/logout").header("Authorization", "Bearer " + access))
+                .andExpect(status().isNoContent());
+
+        // A node starting now only knows the revocation through the table.
+        TokenRevocationService freshNode = new TokenRevocationService(revokedTokenRepository,
+                List.of(new LocalRevocationChannel()), "local", shardRouter, transactionTemplate, 1 << 16, 5);
+        freshNode.init();
+
+        String jti = JWT.decode(access).getId();
+        assertTrue(freshNode.isRevoked(jti));
+    }
+
+    private JsonNode login() throws Exception {
+        String body = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"secret\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"));
+    }
+}
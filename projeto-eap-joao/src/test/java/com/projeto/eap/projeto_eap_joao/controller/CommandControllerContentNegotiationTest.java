@@ -0,0 +1,96 @@
+package com.projeto.eap.projeto_eap_joao.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.projeto.eap.projeto_eap_joao.domain.Technology;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRequest;
+import com.projeto.eap.projeto_eap_joao.dto.RegisterRequest;
+import com.projeto.eap.projeto_eap_joao.service.AuthService;
+import com.projeto.eap.projeto_eap_joao.service.CommandService;
+import com.projeto.eap.projeto_eap_joao.service.ShardDirectoryService;
+import com.projeto.eap.projeto_eap_joao.service.TokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CommandControllerContentNegotiationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ShardDirectoryService shardDirectoryService;
+
+    @Autowired
+    private CommandService commandService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        String username = "negotiation-" + UUID.randomUUID();
+        authService.registerUser(new RegisterRequest(username, "secret"));
+        var user = shardDirectoryService.findUser(username).orElseThrow();
+        token = "Bearer " + tokenService.generateToken(user);
+        commandService.createCommand(user, new CommandRequest("listar", Technology.BASH, "ls -la"));
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/commands").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void listCommandsAsCbor() throws Exception {
+        JsonNode page = read(new ObjectMapper(new CBORFactory()), MediaType.APPLICATION_CBOR, "/commands", 200);
+        assertEquals("ls -la", page.get("content").get(0).get("content").asText());
+    }
+
+    @Test
+    void listCommandsAsSmile() throws Exception {
+        JsonNode page = read(new ObjectMapper(new SmileFactory()), SMILE, "/commands", 200);
+        assertEquals("ls -la", page.get("content").get(0).get("content").asText());
+    }
+
+    @Test
+    void errorsFollowTheNegotiatedFormat() throws Exception {
+        JsonNode error = read(new ObjectMapper(new CBORFactory()), MediaType.APPLICATION_CBOR, "/commands?technology=cobol", 400);
+        assertEquals(400, error.get("statusCode").asInt());
+    }
+
+    private JsonNode read(ObjectMapper mapper, MediaType mediaType, String url, int expectedStatus) throws Exception {
+        MvcResult result = mockMvc.perform(get(url).header("Authorization", token).accept(mediaType))
+                .andExpect(status().is(expectedStatus))
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn();
+        return mapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+}
@@ -0,0 +1,136 @@
+package com.projeto.eap.projeto_eap_joao.controller;
+
+import com.projeto.eap.projeto_eap_joao.domain.Technology;
+import com.projeto.eap.projeto_eap_joao.domain.User;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRequest;
+import com.projeto.eap.projeto_eap_joao.dto.CommandResponse;
+import com.projeto.eap.projeto_eap_joao.dto.RegisterRequest;
+import com.projeto.eap.projeto_eap_joao.service.AuthService;
+import com.projeto.eap.projeto_eap_joao.service.CommandService;
+import com.projeto.eap.projeto_eap_joao.service.ShardDirectoryService;
+import com.projeto.eap.projeto_eap_joao.service.TokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each command endpoint issues, so an accidental
+ * N+1 or an extra SELECT fails the build. One statement of every request is the
+ * shard map lookup done by SecurityFilter, and writes add the lock on the owner's row.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CommandControllerQueryCountTest {
+
+    private static final String BODY = "{\"title\":\"t\",\"technology\":\"BASH\",\"content\":\"echo 1\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ShardDirectoryService shardDirectoryService;
+
+    @Autowired
+    private CommandService commandService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private String token;
+    private Long commandId;
+
+    @BeforeEach
+    void setUp() {
+        String username = "query-count-" + UUID.randomUUID();
+        authService.registerUser(new RegisterRequest(username, "secret"));
+        user = shardDirectoryService.findUser(username).orElseThrow();
+        token = "Bearer " + tokenService.generateToken(user);
+
+        for (int i = 0; i < 5; i++) {
+            CommandResponse created = commandService.createCommand(user, new CommandRequest("cmd " + i, Technology.BASH, "echo " + i));
+            commandId = created.id();
+        }
+    }
+
+    @Test
+    void listCommands() throws Exception {
+        assertStatements(2, get("/commands"));
+    }
+
+    @Test
+    void listCommandsWithFilters() throws Exception {
+        assertStatements(2, get("/commands").param("search", "echo").param("technology", "bash"));
+    }
+
+    @Test
+    void listCommandsPageWithCount() throws Exception {
+        assertStatements(3, get("/commands").param("size", "2"));
+    }
+
+    @Test
+    void getCommand() throws Exception {
+        assertStatements(2, get("/commands/{id}", commandId));
+    }
+
+    @Test
+    void createCommand() throws Exception {
+        assertStatements(4, post("/commands").contentType(MediaType.APPLICATION_JSON).content(BODY));
+    }
+
+    @Test
+    void updateCommand() throws Exception {
+        assertStatements(5, put("/commands/{id}", commandId).contentType(MediaType.APPLICATION_JSON).content(BODY));
+    }
+
+    @Test
+    void deleteCommand() throws Exception {
+        assertStatements(5, delete("/commands/{id}", commandId));
+    }
+
+    @Test
+    void listRevisions() throws Exception {
+        assertStatements(3, get("/commands/{id}/revisions", commandId));
+    }
+
+    @Test
+    void getRevision() throws Exception {
+        assertStatements(3, get("/commands/{id}/revisions/{revision}", commandId, 1));
+    }
+
+    @Test
+    void restoreRevision() throws Exception {
+        assertStatements(6, post("/commands/{id}/revisions/{revision}/restore", commandId, 1));
+    }
+
+    private void assertStatements(long expected, MockHttpServletRequestBuilder request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(request.header("Authorization", token)).andExpect(status().is2xxSuccessful());
+
+        assertEquals(expected, statistics.getPrepareStatementCount(), "statements SQL executados");
+    }
+}
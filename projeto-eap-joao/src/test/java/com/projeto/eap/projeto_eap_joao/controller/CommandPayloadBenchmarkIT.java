@@ -0,0 +1,59 @@
+package com.projeto.eap.projeto_eap_joao.controller;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projeto.eap.projeto_eap_joao.dto.CommandResponse;
+import com.projeto.eap.projeto_eap_joao.dto.PageResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs in the failsafe phase of {@code ./mvnw -Pbenchmarks verify}. Payload size and
+ * encode/decode time of a large GET /commands page (PageResponse of CommandResponse) in JSON,
+ * CBOR and Smile, decoding back into the same types. Results go to
+ * target/payload-benchmark.properties; CommandPayloadFormatsTest checks the formats on every build.
+ */
+class CommandPayloadBenchmarkIT {
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Test
+    void measuresEveryFormat() throws Exception {
+        PageResponse<CommandResponse> page = CommandPayloadFormatsTest.samplePage(PAGE_SIZE);
+
+        StringBuilder report = new StringBuilder();
+        for (var entry : CommandPayloadFormatsTest.mappers().entrySet()) {
+            String format = entry.getKey();
+            ObjectMapper mapper = entry.getValue();
+            JavaType type = CommandPayloadFormatsTest.pageType(mapper);
+            byte[] payload = mapper.writeValueAsBytes(page);
+            assertEquals(page, mapper.readValue(payload, type), format + " deveria decodificar a mesma página");
+
+            for (int i = 0; i < WARMUP; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(page), type);
+            }
+            long encode = 0;
+            long decode = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                byte[] bytes = mapper.writeValueAsBytes(page);
+                long encoded = System.nanoTime();
+                mapper.readValue(bytes, type);
+                decode += System.nanoTime() - encoded;
+                encode += encoded - start;
+            }
+
+            report.append(format).append(".bytes=").append(payload.length).append('\n')
+                    .append(format).append(".encode-us=").append(encode / ITERATIONS / 1000).append('\n')
+                    .append(format).append(".decode-us=").append(decode / ITERATIONS / 1000).append('\n');
+        }
+
+        Files.writeString(Path.of("target", "payload-benchmark.properties"), report);
+    }
+}
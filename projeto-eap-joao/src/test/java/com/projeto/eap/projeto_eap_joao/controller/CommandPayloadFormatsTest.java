@@ -0,0 +1,68 @@
+package com.projeto.eap.projeto_eap_joao.controller;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.projeto.eap.projeto_eap_joao.domain.Technology;
+import com.projeto.eap.projeto_eap_joao.dto.CommandResponse;
+import com.projeto.eap.projeto_eap_joao.dto.PageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Timings for the same page live in CommandPayloadBenchmarkIT.
+class CommandPayloadFormatsTest {
+
+    @Test
+    void everyFormatRoundTripsAndBinaryOnesAreSmallerThanJson() throws Exception {
+        PageResponse<CommandResponse> page = samplePage(20);
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (var entry : mappers().entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] payload = mapper.writeValueAsBytes(page);
+            sizes.put(entry.getKey(), payload.length);
+            assertEquals(page, mapper.readValue(payload, pageType(mapper)), entry.getKey() + " deveria decodificar a mesma página");
+        }
+
+        assertTrue(sizes.get("cbor") < sizes.get("json"), "CBOR deveria ser menor que JSON");
+        assertTrue(sizes.get("smile") < sizes.get("json"), "Smile deveria ser menor que JSON");
+    }
+
+    static Map<String, ObjectMapper> mappers() {
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("cbor", Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build());
+        mappers.put("smile", Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build());
+        return mappers;
+    }
+
+    static JavaType pageType(ObjectMapper mapper) {
+        return mapper.getTypeFactory().constructParametricType(PageResponse.class, CommandResponse.class);
+    }
+
+    static PageResponse<CommandResponse> samplePage(int size) {
+        Technology[] technologies = Technology.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<CommandResponse> content = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            content.add(new CommandResponse(
+                    (long) i,
+                    "Comando " + i,
+                    technologies[i % technologies.length],
+                    "docker run --rm -it -v $(pwd):/app -w /app image:" + i + " sh -c 'make test'",
+                    now.minusMinutes(i)
+            ));
+        }
+        return new PageResponse<>(content, size * 5L, 5, size, 0);
+    }
+}
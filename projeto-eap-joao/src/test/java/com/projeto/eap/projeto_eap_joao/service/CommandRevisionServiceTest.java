@@ -0,0 +1,218 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import com.projeto.eap.projeto_eap_joao.domain.Command;
+import com.projeto.eap.projeto_eap_joao.domain.CommandRevision;
+import com.projeto.eap.projeto_eap_joao.domain.Technology;
+import com.projeto.eap.projeto_eap_joao.domain.User;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRequest;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRevisionResponse;
+import com.projeto.eap.projeto_eap_joao.exceptions.ApiErrorException;
+import com.projeto.eap.projeto_eap_joao.repository.CommandRepository;
+import com.projeto.eap.projeto_eap_joao.repository.CommandRevisionRepository;
+import com.projeto.eap.projeto_eap_joao.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CommandRevisionServiceTest {
+
+    private static final String[] FRAGMENTS = {"a", "b", "\n", " ", "docker ", "echo ", "😀", "😁", "ç"};
+
+    private final List<CommandRevision> rows = new ArrayList<>();
+    private final List<Integer> rangeSizes = new ArrayList<>();
+    private CommandRevisionRepository revisionRepository;
+
+    @BeforeEach
+    void setUp() {
+        revisionRepository = mock(CommandRevisionRepository.class);
+        when(revisionRepository.save(any(CommandRevision.class))).thenAnswer(invocation -> {
+            rows.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(revisionRepository.findRange(any(Command.class), anyInt(), anyInt())).thenAnswer(invocation -> {
+            Command command = invocation.getArgument(0);
+            int from = invocation.getArgument(1);
+            int to = invocation.getArgument(2);
+            List<CommandRevision> range = rows.stream()
+                    .filter(r -> r.getCommand() == command && r.getRevisionNumber() >= from && r.getRevisionNumber() <= to)
+                    .sorted((x, y) -> Integer.compare(x.getRevisionNumber(), y.getRevisionNumber()))
+                    .toList();
+            rangeSizes.add(range.size());
+            return range;
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 7, 10})
+    void randomEditsRebuildEveryRevisionExactly(int interval) {
+        CommandRevisionService service = new CommandRevisionService(revisionRepository, interval);
+        Random random = new Random(interval);
+        Command command = newCommand("titulo 1", "echo inicio", 1);
+        service.recordCreation(command);
+
+        List<String> titles = new ArrayList<>(List.of("", "titulo 1"));
+        List<String> contents = new ArrayList<>(List.of("", "echo inicio"));
+        int total = 3 * interval + 5;
+        for (int revision = 2; revision <= total; revision++) {
+            String content = edit(random, command.getContent());
+            String title = "titulo " + revision;
+            service.recordUpdate(command, title, Technology.BASH, content);
+            command.setTitle(title);
+            command.setContent(content);
+            titles.add(title);
+            contents.add(content);
+        }
+
+        assertEquals(total, command.getRevision());
+        for (CommandRevision row : rows) {
+            assertEquals((row.getRevisionNumber() - 1) % interval == 0, row.isSnapshot(),
+                    "snapshot na revisão " + row.getRevisionNumber());
+            assertWellFormed(row.getContent());
+        }
+        for (int revision = 1; revision <= total; revision++) {
+            CommandRevisionResponse response = service.getRevision(command, revision);
+            assertEquals(contents.get(revision), response.content(), "conteúdo da revisão " + revision);
+            assertEquals(titles.get(revision), response.title());
+            assertEquals(revision, response.revision());
+        }
+        assertTrue(rangeSizes.stream().allMatch(size -> size <= interval), "leu mais de " + interval + " linhas");
+    }
+
+    @Test
+    void surrogatePairsAreNeverSplit() {
+        CommandRevisionService service = new CommandRevisionService(revisionRepository, 10);
+        Command command = newCommand("t", "a😀b", 1);
+        service.recordCreation(command);
+
+        service.recordUpdate(command, "t", Technology.BASH, "a😁b");
+
+        CommandRevision delta = rows.get(1);
+        assertFalse(delta.isSnapshot());
+        assertEquals("😁", delta.getContent());
+        assertEquals(1, delta.getDeltaOffset());
+        assertEquals(2, delta.getDeltaRemoved());
+        command.setContent("a😁b");
+        assertEquals("a😁b", service.getRevision(command, 2).content());
+    }
+
+    @Test
+    void commandsFromBeforeRevisionsGetTheirCurrentStateAsRevisionOne() {
+        CommandRevisionService service = new CommandRevisionService(revisionRepository, 10);
+        Command command = newCommand("antigo", "echo antigo", 0);
+
+        service.recordUpdate(command, "novo", Technology.BASH, "echo novo");
+
+        assertEquals(2, command.getRevision());
+        assertEquals(2, rows.size());
+        assertEquals("echo antigo", service.getRevision(command, 1).content());
+        assertEquals("antigo", service.getRevision(command, 1).title());
+        assertEquals("echo novo", service.getRevision(command, 2).content());
+    }
+
+    @Test
+    void creationStartsTheHistoryAtRevisionOne() {
+        CommandRevisionService service = new CommandRevisionService(revisionRepository, 10);
+        Command command = newCommand("t", "echo", 0);
+
+        service.recordCreation(command);
+
+        assertEquals(1, command.getRevision());
+        assertEquals(1, rows.size());
+        assertEquals("echo", service.getRevision(command, 1).content());
+    }
+
+    @Test
+    void unknownRevisionsAreNotFound() {
+        CommandRevisionService service = new CommandRevisionService(revisionRepository, 10);
+        Command command = newCommand("t", "echo", 1);
+        service.recordCreation(command);
+
+        assertThrows(ApiErrorException.class, () -> service.getRevision(command, 0));
+        assertThrows(ApiErrorException.class, () -> service.getRevision(command, 2));
+    }
+
+    @Test
+    void restoreRecordsANewRevision() {
+        CommandRevisionService revisionService = new CommandRevisionService(revisionRepository, 3);
+        CommandRepository commandRepository = mock(CommandRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        CommandService commandService = new CommandService(commandRepository, userRepository, revisionService, mock(GlobalIdAllocator.class));
+        User user = new User();
+        user.setId(7L);
+        when(userRepository.findForCommandWriteById(user.getId())).thenReturn(Optional.of(user));
+        Command command = newCommand("t", "v1", 1);
+        command.setUser(user);
+        revisionService.recordCreation(command);
+        when(commandRepository.findForUpdateByIdAndUserId(command.getId(), user.getId())).thenReturn(Optional.of(command));
+        when(commandRepository.save(any(Command.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        commandService.updateCommand(user, command.getId(), new CommandRequest("t", Technology.BASH, "v2"));
+        commandService.updateCommand(user, command.getId(), new CommandRequest("t", Technology.BASH, "v3"));
+        commandService.restoreRevision(user, command.getId(), 1);
+
+        assertEquals(4, command.getRevision());
+        assertEquals("v1", command.getContent());
+        assertEquals("v1", revisionService.getRevision(command, 4).content());
+        assertEquals("v3", revisionService.getRevision(command, 3).content());
+    }
+
+    private static Command newCommand(String title, String content, int revision) {
+        Command command = new Command();
+        command.setId(1L);
+        command.setTitle(title);
+        command.setTechnology(Technology.BASH);
+        command.setContent(content);
+        command.setRevision(revision);
+        return command;
+    }
+
+    private static String edit(Random random, String content) {
+        StringBuilder result = new StringBuilder(content);
+        int operations = 1 + random.nextInt(3);
+        for (int i = 0; i < operations; i++) {
+            int position = codePointBoundary(result, random.nextInt(result.length() + 1));
+            switch (random.nextInt(3)) {
+                case 0 -> result.insert(position, FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                case 1 -> {
+                    int end = codePointBoundary(result, Math.min(result.length(), position + random.nextInt(6)));
+                    result.delete(position, end);
+                }
+                default -> {
+                    int end = codePointBoundary(result, Math.min(result.length(), position + random.nextInt(4)));
+                    result.replace(position, end, FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                }
+            }
+        }
+        return result.toString();
+    }
+
+    private static int codePointBoundary(CharSequence text, int index) {
+        if (index > 0 && index < text.length() && Character.isLowSurrogate(text.charAt(index))) {
+            return index - 1;
+        }
+        return index;
+    }
+
+    private static void assertWellFormed(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isHighSurrogate(c)) {
+                assertTrue(i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1)), "surrogate solto em " + text);
+                i++;
+            } else {
+                assertFalse(Character.isLowSurrogate(c), "surrogate solto em " + text);
+            }
+        }
+    }
+}
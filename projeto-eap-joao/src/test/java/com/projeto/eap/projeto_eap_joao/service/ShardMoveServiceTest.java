@@ -0,0 +1,175 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import com.projeto.eap.projeto_eap_joao.config.ShardContext;
+import com.projeto.eap.projeto_eap_joao.domain.Command;
+import com.projeto.eap.projeto_eap_joao.domain.ShardState;
+import com.projeto.eap.projeto_eap_joao.domain.Technology;
+import com.projeto.eap.projeto_eap_joao.domain.User;
+import com.projeto.eap.projeto_eap_joao.domain.UserShard;
+import com.projeto.eap.projeto_eap_joao.dto.CommandRequest;
+import com.projeto.eap.projeto_eap_joao.dto.CommandResponse;
+import com.projeto.eap.projeto_eap_joao.dto.RegisterRequest;
+import com.projeto.eap.projeto_eap_joao.exceptions.ApiErrorException;
+import com.projeto.eap.projeto_eap_joao.repository.CommandRepository;
+import com.projeto.eap.projeto_eap_joao.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "sharding.enabled=true",
+        "sharding.id-block-size=3",
+        "sharding.shards.shard-a.url=jdbc:h2:mem:shard_a;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "sharding.shards.shard-b.url=jdbc:h2:mem:shard_b;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "sharding.shards.shard-c.url=jdbc:h2:mem:shard_c;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class ShardMoveServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private ShardDirectoryService shardDirectoryService;
+
+    @Autowired
+    private ShardMoveService shardMoveService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private CommandService commandService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommandRepository commandRepository;
+
+    @Test
+    void usersAndTheirCommandsLiveOnTheirRingShard() {
+        Set<String> used = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> commandIds = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            UserShard location = register();
+            assertEquals(shardRouter.shardFor(location.getUserId()), location.getShard());
+            used.add(location.getShard());
+            assertTrue(userIds.add(location.getUserId()), "id de usuário repetido");
+
+            CommandResponse command = createCommand(location, "echo " + i);
+            assertTrue(commandIds.add(command.id()), "id de comando repetido entre shards");
+            for (String shard : shardRouter.shards()) {
+                boolean expected = shard.equals(location.getShard());
+                assertEquals(expected, ShardContext.callOn(shard, () -> userRepository.existsById(location.getUserId())));
+                assertEquals(expected, ShardContext.callOn(shard,
+                        () -> commandRepository.findByIdAndUserId(command.id(), location.getUserId()).isPresent()));
+            }
+        }
+        assertTrue(used.size() > 1, "usuários deveriam se espalhar por mais de um shard");
+    }
+
+    @Test
+    void moveUserCopiesDataAndFlipsTheShardMap() {
+        UserShard location = register();
+        String source = location.getShard();
+        String target = shardRouter.shards().stream().filter(s -> !s.equals(source)).findFirst().orElseThrow();
+
+        CommandResponse created = createCommand(location, "echo v1");
+        User user = ShardContext.callOn(source, () -> userRepository.findById(location.getUserId()).orElseThrow());
+        ShardContext.runOn(source, () -> commandService.updateCommand(user, created.id(),
+                new CommandRequest("t", Technology.BASH, "echo v2")));
+
+        shardMoveService.moveUser(location.getUserId(), target);
+
+        UserShard moved = shardDirectoryService.findByUserId(location.getUserId()).orElseThrow();
+        assertEquals(target, moved.getShard());
+        assertEquals(ShardState.ACTIVE, moved.getState());
+        assertFalse(ShardContext.callOn(source, () -> userRepository.existsById(location.getUserId())));
+        assertTrue(ShardContext.callOn(source, () -> commandRepository.findAllByUserId(location.getUserId()).isEmpty()));
+
+        User movedUser = shardDirectoryService.findUser(location.getUsername()).orElseThrow();
+        ShardContext.runOn(target, () -> {
+            assertEquals(List.of(created.id()), commandRepository.findAllByUserId(movedUser.getId()).stream()
+                    .map(Command::getId).toList());
+            assertEquals("echo v1", commandService.getRevision(movedUser, created.id(), 1).content());
+            assertEquals("echo v2", commandService.getRevision(movedUser, created.id(), 2).content());
+            assertEquals("echo v2", commandService.getCommand(movedUser, created.id()).content());
+        });
+    }
+
+    @Test
+    void writesRoutedByAStaleMapEntryAreRejectedAfterTheMove() {
+        UserShard location = register();
+        String source = location.getShard();
+        String target = shardRouter.shards().stream().filter(s -> !s.equals(source)).findFirst().orElseThrow();
+        CommandResponse created = createCommand(location, "echo v1");
+        User user = shardDirectoryService.findUser(location.getUsername()).orElseThrow();
+
+        shardMoveService.moveUser(location.getUserId(), target);
+
+        // A request that read the map before the flip still routes to the source shard.
+        ShardContext.set(source, true);
+        try {
+            ApiErrorException error = assertThrows(ApiErrorException.class, () -> commandService.updateCommand(user,
+                    created.id(), new CommandRequest("t", Technology.BASH, "echo perdido")));
+            assertEquals(HttpStatus.CONFLICT, error.getStatus());
+        } finally {
+            ShardContext.clear();
+        }
+        assertEquals("echo v1", ShardContext.callOn(target, () -> commandService.getCommand(user, created.id()).content()));
+    }
+
+    @Test
+    void savingAUserWithATakenIdFailsInsteadOfOverwritingIt() {
+        UserShard location = register();
+        User impostor = new User();
+        impostor.setId(location.getUserId());
+        impostor.setUsername("impostor-" + UUID.randomUUID());
+        impostor.setPassword("x");
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> ShardContext.runOn(location.getShard(), () -> userRepository.save(impostor)));
+        assertEquals(location.getUsername(), ShardContext.callOn(location.getShard(),
+                () -> userRepository.findById(location.getUserId()).orElseThrow().getUsername()));
+    }
+
+    @Test
+    void writesAreRejectedWhileUserIsMoving() {
+        UserShard location = register();
+        shardDirectoryService.updateLocation(location.getUserId(), location.getShard(), ShardState.MOVING);
+        User user = shardDirectoryService.findUser(location.getUsername()).orElseThrow();
+
+        ShardContext.set(location.getShard(), false);
+        try {
+            ApiErrorException error = assertThrows(ApiErrorException.class, () -> commandService.createCommand(user,
+                    new CommandRequest("t", Technology.BASH, "echo")));
+            assertEquals(HttpStatus.CONFLICT, error.getStatus());
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private UserShard register() {
+        String username = "shard-" + UUID.randomUUID();
+        authService.registerUser(new RegisterRequest(username, "secret"));
+        return shardDirectoryService.findByUsername(username).orElseThrow();
+    }
+
+    private CommandResponse createCommand(UserShard location, String content) {
+        User user = shardDirectoryService.findUser(location.getUsername()).orElseThrow();
+        return ShardContext.callOn(location.getShard(), () -> commandService.createCommand(user,
+                new CommandRequest("t", Technology.BASH, content)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.projeto.eap.projeto_eap_joao.service;
+
+import com.projeto.eap.projeto_eap_joao.config.ShardingProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardRouterTest {
+
+    @Test
+    void refusesToStartWhenShardingIsEnabledWithoutTheRoutingDataSource() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        ShardingProperties.Shard shard = new ShardingProperties.Shard();
+        shard.setUrl("jdbc:h2:mem:shard_a");
+        properties.getShards().put("shard-a", shard);
+
+        assertThrows(IllegalStateException.class, () -> new ShardRouter(properties, new DriverManagerDataSource()));
+    }
+}